@@ -0,0 +1,70 @@
+package org.acme;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lines up two JMH JSON result files, typically produced on two commits, and prints every benchmark found in both
+ * with its scores and the relative change; for throughput a positive change is an improvement, for the time modes
+ * a negative one is.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.main=org.acme.JmhResultComparison
+ * -Djmh.args="base.json target/jmh-result.json"}.
+ */
+public final class JmhResultComparison {
+
+    private JmhResultComparison() {
+    }
+
+    private record Score(String mode, double score, String unit) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: JmhResultComparison <base.json> <new.json>");
+            System.exit(2);
+        }
+        Map<String, Score> base = read(Path.of(args[0]));
+        Map<String, Score> current = read(Path.of(args[1]));
+        System.out.printf("%-70s %-6s %16s %16s %9s %s%n", "Benchmark", "Mode", "Base", "New", "Change", "Units");
+        current.forEach((benchmark, score) -> {
+            Score before = base.get(benchmark);
+            if (before == null || !before.mode().equals(score.mode())) {
+                System.out.printf("%-70s %-6s %16s %16.3f %9s %s%n", benchmark, score.mode(), "-", score.score(), "new", score.unit());
+                return;
+            }
+            System.out.printf("%-70s %-6s %16.3f %16.3f %+8.1f%% %s%n", benchmark, score.mode(),
+                    before.score(), score.score(), (score.score() - before.score()) / before.score() * 100, score.unit());
+        });
+        base.keySet().stream()
+                .filter(benchmark -> !current.containsKey(benchmark))
+                .forEach(benchmark -> System.out.printf("%-70s %-6s %16.3f %16s %9s%n", benchmark,
+                        base.get(benchmark).mode(), base.get(benchmark).score(), "-", "gone"));
+    }
+
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            String benchmark = run.path("benchmark").asText();
+            // keeps the class and method names, the package is the same for every benchmark of a class
+            int method = benchmark.lastIndexOf('.');
+            StringBuilder name = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', method - 1) + 1));
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            if (!params.isEmpty()) {
+                name.append(params);
+            }
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(name.toString(), new Score(run.path("mode").asText(),
+                    metric.path("score").asDouble(),
+                    metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,86 @@
+package org.acme.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.acme.domain.Payment;
+import org.acme.domain.RemotePaymentName;
+import org.acme.domain.RemotePaymentRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary and the JSON {@link RedisCodec} on the two values kept in Redis. The encoded sizes are
+ * printed once per trial next to the throughput figures.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RedisCodecBenchmark {
+
+    @Param({"binary", "json"})
+    public String codecName;
+
+    private RedisCodec codec;
+    private Payment payment;
+    private RemotePaymentRequest request;
+    private byte[] encodedPayment;
+    private byte[] encodedRequest;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        new Iso8601InstantConverter().customize(objectMapper);
+        RedisCodec json = new JsonRedisCodec(objectMapper);
+        codec = switch (codecName) {
+            case "binary" -> new BinaryRedisCodec(json);
+            case "json" -> json;
+            default -> throw new IllegalArgumentException("unknown codec: " + codecName);
+        };
+        Instant now = Instant.parse("2025-07-15T12:34:56.789Z");
+        payment = Payment.of(UUID.randomUUID().toString(), RemotePaymentName.DEFAULT, new BigDecimal("19.90"), now);
+        request = new RemotePaymentRequest(UUID.randomUUID().toString(), new BigDecimal("19.90"), now, 2, Duration.ofMillis(30));
+        encodedPayment = codec.encode(payment);
+        encodedRequest = codec.encode(request);
+        System.out.printf("%n%s codec: payment %d bytes, request %d bytes%n",
+                codecName, encodedPayment.length, encodedRequest.length);
+    }
+
+    @Benchmark
+    public byte[] encodePayment() {
+        return codec.encode(payment);
+    }
+
+    @Benchmark
+    public Payment decodePayment() {
+        return codec.decode(encodedPayment, Payment.class);
+    }
+
+    @Benchmark
+    public byte[] encodeRequest() {
+        return codec.encode(request);
+    }
+
+    @Benchmark
+    public RemotePaymentRequest decodeRequest() {
+        return codec.decode(encodedRequest, RemotePaymentRequest.class);
+    }
+}
@@ -1,5 +1,7 @@
 package org.acme.api;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.DefaultValue;
@@ -10,19 +12,25 @@ import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.acme.domain.Payments;
+import org.acme.domain.PaymentsSummary;
 import org.acme.infrastructure.Iso8601InstantConverter;
 
 import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 @Path("/payments-summary")
 @Produces(MediaType.APPLICATION_JSON)
 public class PaymentsSummaryResource {
 
     private final Payments payments;
+    private final Timer summaryLatency;
 
     @Inject
-    public PaymentsSummaryResource(Payments payments) {
+    public PaymentsSummaryResource(Payments payments, MeterRegistry registry) {
         this.payments = payments;
+        this.summaryLatency = Timer.builder("payments.summary.compute")
+                .tag("scope", "total")
+                .register(registry);
     }
 
     @GET
@@ -30,7 +38,7 @@ public class PaymentsSummaryResource {
                         @QueryParam("to") @DefaultValue("") String toStr) {
 
         if ("".equals(fromStr) || "".equals(toStr)) {
-            return Response.ok(payments.getSummary(null, null)).build();
+            return Response.ok(getSummary(null, null)).build();
         }
 
         Instant from = Iso8601InstantConverter.parse(fromStr);
@@ -40,7 +48,14 @@ public class PaymentsSummaryResource {
             return Response.status(Response.Status.BAD_REQUEST).entity("from and to cannot be null.").build();
         }
 
-        return Response.ok(payments.getSummary(from, to)).build();
+        return Response.ok(getSummary(from, to)).build();
+    }
+
+    private PaymentsSummary getSummary(Instant from, Instant to) {
+        long start = System.nanoTime();
+        PaymentsSummary summary = payments.getSummary(from, to);
+        summaryLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return summary;
     }
 
 }
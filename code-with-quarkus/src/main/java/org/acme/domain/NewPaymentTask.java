@@ -13,7 +13,8 @@ import static org.acme.domain.RemotePaymentName.DEFAULT;
 import static org.acme.domain.RemotePaymentName.FALLBACK;
 
 public record NewPaymentTask(Function<RemotePaymentName, RemotePaymentProcessorExecutor> remotePaymentProcessorResolver,
-                             Consumer<Payment> onSuccess) {
+                             Consumer<Payment> onSuccess,
+                             RemotePaymentRouter router) {
 
     public static WithRemotePaymentProcessorResolver withRemotePaymentProcessorExecutorResolver(
             Function<RemotePaymentName, RemotePaymentProcessorExecutor> remotePaymentProcessorExecutorResolver) {
@@ -34,31 +35,37 @@ public record NewPaymentTask(Function<RemotePaymentName, RemotePaymentProcessorE
         }
 
         public NewPaymentTaskBuilder withPaymentStore(Consumer<Payment> paymentStore) {
-            return new NewPaymentTaskBuilder(remotePaymentProcessorExecutorResolver, paymentStore);
+            return new NewPaymentTaskBuilder(remotePaymentProcessorExecutorResolver, paymentStore, RemotePaymentRouter.DEFAULT_FIRST);
         }
 
     }
 
     public record NewPaymentTaskBuilder(
             Function<RemotePaymentName, RemotePaymentProcessorExecutor> remotePaymentProcessorExecutorResolver,
-            Consumer<Payment> paymentStore) {
+            Consumer<Payment> paymentStore,
+            RemotePaymentRouter router) {
 
         public NewPaymentTaskBuilder {
             remotePaymentProcessorExecutorResolver = Objects.requireNonNull(remotePaymentProcessorExecutorResolver, "remotePaymentProcessorExecutorResolver is required");
             paymentStore = Objects.requireNonNull(paymentStore, "paymentStore function is required");
+            router = Objects.requireNonNull(router, "router is required");
         }
 
         public NewPaymentTaskBuilder withRemotePaymentProcessorExecutorResolver(
                 Function<RemotePaymentName, RemotePaymentProcessorExecutor> remotePaymentProcessorExecutorResolver) {
-            return new NewPaymentTaskBuilder(remotePaymentProcessorExecutorResolver, paymentStore);
+            return new NewPaymentTaskBuilder(remotePaymentProcessorExecutorResolver, paymentStore, router);
         }
 
         public NewPaymentTaskBuilder withPaymentStore(Consumer<Payment> paymentStore) {
-            return new NewPaymentTaskBuilder(remotePaymentProcessorExecutorResolver, paymentStore);
+            return new NewPaymentTaskBuilder(remotePaymentProcessorExecutorResolver, paymentStore, router);
+        }
+
+        public NewPaymentTaskBuilder withRouter(RemotePaymentRouter router) {
+            return new NewPaymentTaskBuilder(remotePaymentProcessorExecutorResolver, paymentStore, router);
         }
 
         public NewPaymentTask build() {
-            return new NewPaymentTask(remotePaymentProcessorExecutorResolver, paymentStore);
+            return new NewPaymentTask(remotePaymentProcessorExecutorResolver, paymentStore, router);
         }
     }
 
@@ -67,6 +74,15 @@ public record NewPaymentTask(Function<RemotePaymentName, RemotePaymentProcessorE
         RemotePaymentProcessorExecutor defaultPaymentProcessor = remotePaymentProcessorResolver.apply(DEFAULT);
         RemotePaymentProcessorExecutor fallbackPaymentProcessor = remotePaymentProcessorResolver.apply(FALLBACK);
 
+        if (router.route() == FALLBACK) {
+            // the default processor is down or currently scores worse, start with the fallback one
+            return submitPayment(newPayment,
+                    FALLBACK,
+                    fallbackPaymentProcessor,
+                    defaultRequest ->
+                            submitPayment(defaultRequest, DEFAULT, defaultPaymentProcessor, rd -> Optional.empty()));
+        }
+
         return submitPayment(newPayment,
                 DEFAULT,
                 defaultPaymentProcessor,
@@ -80,15 +96,19 @@ public record NewPaymentTask(Function<RemotePaymentName, RemotePaymentProcessorE
                                             RemotePaymentProcessorExecutor paymentProcessor,
                                             Function<RemotePaymentRequest, Optional<Payment>> fallback) throws RemotePaymentProcessorNotAvailableException, PaymentProcessException {
         RestResponse<RemotePaymentResponse> response;
+        long start = System.nanoTime();
         try {
             response = paymentProcessor.processPayment(newPayment);
         } catch (Exception e) {
+            router.record(remotePaymentName, System.nanoTime() - start, false);
             return Optional.of(fallback.apply(newPayment)
                     .orElseThrow(() -> new RemotePaymentProcessorNotAvailableException(remotePaymentName,
                             "Unexpected error on submit to " + remotePaymentName.value() + " remote payment service. : " + e.getMessage())));
         }
         final var _response = response;
-        switch (Response.Status.fromStatusCode(_response.getStatus()).getFamily()) {
+        final var family = Response.Status.fromStatusCode(_response.getStatus()).getFamily();
+        router.record(remotePaymentName, System.nanoTime() - start, family != Response.Status.Family.SERVER_ERROR);
+        switch (family) {
             case SUCCESSFUL -> {
                 Payment payment = remotePaymentName.toPayment(newPayment);
                 onSuccess.accept(payment);
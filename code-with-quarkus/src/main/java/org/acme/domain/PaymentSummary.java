@@ -11,6 +11,10 @@ public record PaymentSummary(Integer totalRequests,
 
     public static PaymentSummary ZERO = new PaymentSummary(0, BigDecimal.ZERO.setScale(2, RoundingMode.HALF_DOWN));
 
+    public static PaymentSummary of(Integer totalRequests, BigDecimal totalAmount) {
+        return new PaymentSummary(totalRequests, totalAmount.setScale(2, RoundingMode.HALF_DOWN));
+    }
+
     public PaymentSummary increment(Payment payment) {
         return new PaymentSummary(
                 totalRequests + 1,
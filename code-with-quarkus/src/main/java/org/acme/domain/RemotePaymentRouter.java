@@ -0,0 +1,19 @@
+package org.acme.domain;
+
+public interface RemotePaymentRouter {
+
+    RemotePaymentRouter DEFAULT_FIRST = new RemotePaymentRouter() {
+        @Override
+        public RemotePaymentName route() {
+            return RemotePaymentName.DEFAULT;
+        }
+
+        @Override
+        public void record(RemotePaymentName name, long latencyNanos, boolean success) {
+        }
+    };
+
+    RemotePaymentName route();
+
+    void record(RemotePaymentName name, long latencyNanos, boolean success);
+}
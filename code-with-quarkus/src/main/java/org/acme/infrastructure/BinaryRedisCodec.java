@@ -0,0 +1,138 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.RemotePaymentName;
+import org.acme.domain.RemotePaymentRequest;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Fixed-layout codec for {@link Payment} and {@link RemotePaymentRequest}: a layout byte, the correlation id as
+ * two longs, the amount in cents and the epoch millis as longs, followed by the processor as a byte for a
+ * payment or by the retry count and the retry delay in nanos for a request.
+ * <p>
+ * Correlation ids that are not UUIDs are written as length-prefixed UTF-8 instead, and every other type goes
+ * through JSON. JSON documents start with a character no layout byte uses, so values written by the JSON codec
+ * still decode.
+ */
+public class BinaryRedisCodec implements RedisCodec {
+
+    private static final byte UUID_PAYMENT = 1;
+    private static final byte STRING_ID_PAYMENT = 2;
+    private static final byte UUID_REQUEST = 3;
+    private static final byte STRING_ID_REQUEST = 4;
+    private static final RemotePaymentName[] PROCESSORS = RemotePaymentName.values();
+
+    private final RedisCodec fallback;
+
+    public BinaryRedisCodec(RedisCodec fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        return switch (value) {
+            case Payment payment -> encode(payment);
+            case RemotePaymentRequest request -> encode(request);
+            default -> fallback.encode(value);
+        };
+    }
+
+    private static byte[] encode(Payment payment) {
+        UUID uuid = uuidOf(payment.correlationId());
+        byte[] id = uuid == null ? payment.correlationId().getBytes(StandardCharsets.UTF_8) : null;
+        ByteBuffer buffer = ByteBuffer.allocate(1 + idLength(id) + 2 * Long.BYTES + 1);
+        buffer.put(uuid == null ? STRING_ID_PAYMENT : UUID_PAYMENT);
+        putId(buffer, uuid, id);
+        buffer.putLong(RedisPayments.toCents(payment.amount()));
+        buffer.putLong(payment.createAt().toEpochMilli());
+        buffer.put((byte) payment.processedBy().ordinal());
+        return buffer.array();
+    }
+
+    private static byte[] encode(RemotePaymentRequest request) {
+        UUID uuid = uuidOf(request.correlationId());
+        byte[] id = uuid == null ? request.correlationId().getBytes(StandardCharsets.UTF_8) : null;
+        ByteBuffer buffer = ByteBuffer.allocate(1 + idLength(id) + 4 * Long.BYTES);
+        buffer.put(uuid == null ? STRING_ID_REQUEST : UUID_REQUEST);
+        putId(buffer, uuid, id);
+        buffer.putLong(RedisPayments.toCents(request.amount()));
+        buffer.putLong(request.requestedAt().toEpochMilli());
+        buffer.putLong(request.retryCount());
+        buffer.putLong(request.retryDelay().toNanos());
+        return buffer.array();
+    }
+
+    private static UUID uuidOf(String correlationId) {
+        // UUID.fromString also accepts shortened and upper case forms, only the canonical one round-trips
+        if (correlationId == null || correlationId.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(correlationId);
+            return uuid.toString().equals(correlationId) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int idLength(byte[] id) {
+        return id == null ? 2 * Long.BYTES : Integer.BYTES + id.length;
+    }
+
+    private static void putId(ByteBuffer buffer, UUID uuid, byte[] id) {
+        if (uuid != null) {
+            buffer.putLong(uuid.getMostSignificantBits());
+            buffer.putLong(uuid.getLeastSignificantBits());
+        } else {
+            buffer.putInt(id.length);
+            buffer.put(id);
+        }
+    }
+
+    private static String getId(ByteBuffer buffer, boolean uuid) {
+        if (uuid) {
+            return new UUID(buffer.getLong(), buffer.getLong()).toString();
+        }
+        byte[] id = new byte[buffer.getInt()];
+        buffer.get(id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public <T> T decode(byte[] data, Class<T> type) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0 || data[0] == '{') {
+            return fallback.decode(data, type);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte layout = buffer.get();
+        return type.cast(switch (layout) {
+            case UUID_PAYMENT, STRING_ID_PAYMENT -> decodePayment(buffer, layout == UUID_PAYMENT);
+            case UUID_REQUEST, STRING_ID_REQUEST -> decodeRequest(buffer, layout == UUID_REQUEST);
+            default -> throw new IllegalArgumentException("unknown layout " + layout);
+        });
+    }
+
+    private static Payment decodePayment(ByteBuffer buffer, boolean uuid) {
+        String correlationId = getId(buffer, uuid);
+        BigDecimal amount = BigDecimal.valueOf(buffer.getLong(), 2);
+        Instant createAt = Instant.ofEpochMilli(buffer.getLong());
+        return Payment.of(correlationId, PROCESSORS[buffer.get()], amount, createAt);
+    }
+
+    private static RemotePaymentRequest decodeRequest(ByteBuffer buffer, boolean uuid) {
+        String correlationId = getId(buffer, uuid);
+        BigDecimal amount = BigDecimal.valueOf(buffer.getLong(), 2);
+        Instant requestedAt = Instant.ofEpochMilli(buffer.getLong());
+        long retryCount = buffer.getLong();
+        return new RemotePaymentRequest(correlationId, amount, requestedAt, retryCount, Duration.ofNanos(buffer.getLong()));
+    }
+}
@@ -0,0 +1,145 @@
+package org.acme.infrastructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel that hands each scheduled item to {@code onExpire} once its delay elapsed.
+ * <p>
+ * Scheduling only appends to a lock-free queue; a single virtual thread advances the wheel one tick at a time,
+ * moves the newly scheduled items into their slots and expires the items of the current slot, so no thread is
+ * parked per waiting item. Expiration happens at tick granularity, never before the requested delay.
+ */
+public final class HashedTimingWheel<T> implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<List<Timeout<T>>> slots;
+    private final Queue<Timeout<T>> scheduled = new ConcurrentLinkedQueue<>();
+    private final Consumer<T> onExpire;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong generation = new AtomicLong();
+    private final long startNanos;
+    private final Thread ticker;
+    private volatile boolean running = true;
+    private long tick;
+
+    private static final class Timeout<T> {
+        final T item;
+        final long deadlineNanos;
+        final long generation;
+        long remainingRounds;
+
+        Timeout(T item, long deadlineNanos, long generation) {
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+            this.generation = generation;
+        }
+    }
+
+    public HashedTimingWheel(String name, Duration tick, int wheelSize, Consumer<T> onExpire) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("tick must be positive");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a positive power of two");
+        }
+        this.tickNanos = tick.toNanos();
+        this.mask = wheelSize - 1;
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.onExpire = onExpire;
+        this.startNanos = System.nanoTime();
+        this.ticker = Thread.ofVirtual().name(name).start(this::run);
+    }
+
+    public void schedule(T item, Duration delay) {
+        if (!running) {
+            throw new IllegalStateException("the timing wheel is closed");
+        }
+        pending.incrementAndGet();
+        scheduled.add(new Timeout<>(item, System.nanoTime() + Math.max(0, delay.toNanos()), generation.get()));
+    }
+
+    /**
+     * The number of items waiting to expire.
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Drops every item scheduled so far; they will never be handed to {@code onExpire}.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            long sleep;
+            while ((sleep = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(sleep);
+                if (!running) {
+                    return;
+                }
+            }
+            transferScheduled();
+            expire(slots.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    private void transferScheduled() {
+        Timeout<T> timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            long ticks = Math.max(tick, (timeout.deadlineNanos - startNanos + tickNanos - 1) / tickNanos);
+            timeout.remainingRounds = (ticks - tick) / slots.size();
+            slots.get((int) (ticks & mask)).add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout<T>> slot) {
+        long current = generation.get();
+        int kept = 0;
+        for (int i = 0; i < slot.size(); i++) {
+            Timeout<T> timeout = slot.get(i);
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                slot.set(kept++, timeout);
+                continue;
+            }
+            pending.decrementAndGet();
+            if (timeout.generation != current) {
+                continue;
+            }
+            try {
+                onExpire.accept(timeout.item);
+            } catch (RuntimeException e) {
+                LOGGER.error("Error handling an expired item: {}", e.getMessage(), e);
+            }
+        }
+        slot.subList(kept, slot.size()).clear();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+}
@@ -61,7 +61,7 @@ public class Iso8601InstantConverter implements ObjectMapperCustomizer {
 
         @Override
         public Instant deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException, JacksonException {
-            return Iso8601InstantConverter.parse(jsonParser.readValueAs(String.class));
+            return Iso8601InstantConverter.parse(jsonParser.getValueAsString());
         }
 
         @Override
@@ -86,6 +86,14 @@ public class Iso8601InstantConverter implements ObjectMapperCustomizer {
     }
 
     public static Instant parse(String input) {
+        if (input == null) {
+            return null;
+        }
+        Instant instant = IsoInstantParser.parse(input);
+        return instant != null ? instant : parseWithFormatters(input);
+    }
+
+    static Instant parseWithFormatters(String input) {
         return ofNullable(input).flatMap(i -> SERIALIZERS.stream()
                 .map(formatter -> {
                     try {
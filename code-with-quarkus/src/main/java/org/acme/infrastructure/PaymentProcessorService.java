@@ -1,5 +1,9 @@
 package org.acme.infrastructure;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.quarkus.runtime.Startup;
 import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -8,41 +12,62 @@ import org.acme.domain.DefaultPaymentProcessor;
 import org.acme.domain.FallbackPaymentProcessor;
 import org.acme.domain.NewPaymentRequest;
 import org.acme.domain.NewPaymentTask;
+import org.acme.domain.RemotePaymentProcessorNotAvailableException;
 import org.acme.domain.RemotePaymentRequest;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.slf4j.Logger;
+import redis.clients.jedis.args.ListDirection;
+import redis.clients.jedis.util.KeyValue;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.LongStream;
 
-import static java.util.Optional.ofNullable;
-
 @Startup
 @ApplicationScoped
 public class PaymentProcessorService {
 
     private final static Logger LOGGER = org.slf4j.LoggerFactory.getLogger(PaymentProcessorService.class);
     private final static String PAYMENTS_TO_PROCESS = "payments_to_process";
+    // sorted set of instance ids scored by the length of their payments_to_process list
+    private final static String PAYMENTS_TO_PROCESS_BACKLOG = "payments_to_process_backlog";
     private final ExecutorService executorService;
     private final int batchSize;
     private final DefaultPaymentProcessor defaultPaymentProcessorService;
     private final FallbackPaymentProcessor fallbackPaymentProcessor;
     private final RedisExecutor redisExecutor;
+    private final RedisPaymentWriter paymentWriter;
+    private final PaymentRouter router;
     private final Function<RedisExecutor.RedisContext, NewPaymentTask.NewPaymentTaskBuilder> newPaymentTaskBuilder;
-    private final BlockingQueue<NewPaymentRequest> queue = new LinkedBlockingDeque<>();
+    // new payments and the retries fired by the wheel share the queue the collector blocks on
+    private final BlockingQueue<RemotePaymentRequest> queue = new LinkedBlockingQueue<>();
+    private final RetryPolicy retryPolicy;
+    private final HashedTimingWheel<RemotePaymentRequest> retries;
     private final String instanceId;
+    private final byte[] paymentsToProcessKey;
     private final Semaphore semaphore;
+    private final Duration collectorPollTimeout;
+    private final double workerPopTimeoutSeconds;
+    private final boolean stealEnabled;
+    private final String stealMinBacklog;
+    private final Counter intake;
+    private final Counter retried;
+    private final Counter abandoned;
+    private final Timer queueWait;
 
     @Inject
     public PaymentProcessorService(
@@ -54,16 +79,57 @@ public class PaymentProcessorService {
             DefaultPaymentProcessor defaultPaymentProcessorService,
             @RestClient
             FallbackPaymentProcessor fallbackPaymentProcessor,
-            RedisExecutor redisExecutor) {
+            RedisExecutor redisExecutor,
+            RedisPaymentWriter paymentWriter,
+            PaymentRouter router,
+            MeterRegistry registry,
+            @ConfigProperty(name = "retry.base-delay", defaultValue = "10ms")
+            Duration retryBaseDelay,
+            @ConfigProperty(name = "retry.max-delay", defaultValue = "1s")
+            Duration retryMaxDelay,
+            @ConfigProperty(name = "retry.max-attempts", defaultValue = "64")
+            int retryMaxAttempts,
+            @ConfigProperty(name = "retry.budget", defaultValue = "60s")
+            Duration retryBudget,
+            @ConfigProperty(name = "retry.wheel.tick", defaultValue = "10ms")
+            Duration retryWheelTick,
+            @ConfigProperty(name = "retry.wheel.size", defaultValue = "512")
+            int retryWheelSize,
+            @ConfigProperty(name = "collector.poll-timeout", defaultValue = "1s")
+            Duration collectorPollTimeout,
+            @ConfigProperty(name = "worker.pop-timeout", defaultValue = "1s")
+            Duration workerPopTimeout,
+            @ConfigProperty(name = "worker.steal.enabled", defaultValue = "true")
+            boolean stealEnabled,
+            @ConfigProperty(name = "worker.steal.min-backlog", defaultValue = "1")
+            long stealMinBacklog) {
         this.batchSize = batchSize;
+        this.collectorPollTimeout = collectorPollTimeout;
+        this.workerPopTimeoutSeconds = workerPopTimeout.toMillis() / 1000.0;
+        this.stealEnabled = stealEnabled;
+        this.stealMinBacklog = String.valueOf(stealMinBacklog);
         this.defaultPaymentProcessorService = defaultPaymentProcessorService;
         this.fallbackPaymentProcessor = fallbackPaymentProcessor;
         this.redisExecutor = redisExecutor;
+        this.paymentWriter = paymentWriter;
+        this.router = router;
         this.instanceId = instanceId.orElseGet(() -> UUID.randomUUID().toString());
+        this.paymentsToProcessKey = paymentsToProcessKey(this.instanceId);
         this.executorService = Executors.newVirtualThreadPerTaskExecutor();
         this.newPaymentTaskBuilder = newPaymentTaskBuilder();
         int availableProcessorForPaymentProcessing = (int) Math.round(Runtime.getRuntime().availableProcessors() * 0.5);
         this.semaphore = new Semaphore(availableProcessorForPaymentProcessing);
+        this.retryPolicy = new RetryPolicy(retryBaseDelay, retryMaxDelay, retryMaxAttempts, retryBudget);
+        this.retries = new HashedTimingWheel<>("payment-retries", retryWheelTick, retryWheelSize, queue::offer);
+        Gauge.builder("payments.collector.queue.depth", queue::size).register(registry);
+        Gauge.builder("payments.worker.permits.available", semaphore::availablePermits).register(registry);
+        Gauge.builder("payments.worker.retries.pending", retries::pending).register(registry);
+        this.intake = Counter.builder("payments.worker.intake").register(registry);
+        this.retried = Counter.builder("payments.worker.retries").register(registry);
+        this.abandoned = Counter.builder("payments.worker.abandoned").register(registry);
+        this.queueWait = Timer.builder("payments.worker.queue.wait")
+                .description("Time from the intake to the first call to a payment processor")
+                .register(registry);
     }
 
     private Function<RedisExecutor.RedisContext, NewPaymentTask.NewPaymentTaskBuilder> newPaymentTaskBuilder() {
@@ -71,24 +137,27 @@ public class PaymentProcessorService {
                 .withRemotePaymentProcessorExecutorResolver((name) -> switch (name) {
                     case DEFAULT -> defaultPaymentProcessorService;
                     default -> fallbackPaymentProcessor;
-                }).withPaymentStore(payment -> RedisPayments.register(ctx, payment));
+                }).withPaymentStore(paymentWriter::register)
+                .withRouter(router);
     }
 
     @Startup
     public void start() {
-        System.out.println("Initialing the " + getClass().getSimpleName());
         long workers = Math.round(Math.round(Runtime.getRuntime().availableProcessors() * 0.5) * 0.5);
-        System.out.println("Available Processors: " + Runtime.getRuntime().availableProcessors());
-        System.out.println("Workers: " + workers);
-        System.out.println("Batch size: " + batchSize);
+        LOGGER.info("Starting {} workers on {} available processors with batch size {}",
+                workers, Runtime.getRuntime().availableProcessors(), batchSize);
 
         LongStream.range(0, workers)
                 .forEach(worker -> {
                     this.executorService.execute(() -> {
-                        System.out.println("Starting worker " + worker + "...");
+                        LOGGER.debug("Starting worker {}", worker);
                         while (true) {
                             try {
                                 semaphore.acquire();
+                            } catch (InterruptedException e) {
+                                return;
+                            }
+                            try {
                                 processPayment();
                             } catch (Exception e) {
                                 // I don't care about it
@@ -100,19 +169,26 @@ public class PaymentProcessorService {
                 });
 
         this.executorService.execute(() -> {
-            System.out.println("Starting payment to process collector ...");
+            LOGGER.debug("Starting the payments to process collector");
             while (true) {
                 try {
-                    var pendingRequests = new ArrayList<NewPaymentRequest>();
-                    if (queue.drainTo(pendingRequests, batchSize) > 0) {
-                        redisExecutor.execute(ctx ->
-                                ctx.jedis()
-                                        .lpush(PAYMENTS_TO_PROCESS + ":" + instanceId,
-                                                pendingRequests.stream()
-                                                        .map(ctx::encodeToJSON)
-                                                        .toArray(String[]::new))
-                        );
+                    RemotePaymentRequest first = queue.poll(collectorPollTimeout.toNanos(), TimeUnit.NANOSECONDS);
+                    if (first == null) {
+                        continue;
                     }
+                    var pendingRequests = new ArrayList<RemotePaymentRequest>();
+                    pendingRequests.add(first);
+                    queue.drainTo(pendingRequests, batchSize - 1);
+                    redisExecutor.execute(ctx -> {
+                        long backlog = ctx.jedis()
+                                .lpush(paymentsToProcessKey,
+                                        pendingRequests.stream()
+                                                .map(ctx::encode)
+                                                .toArray(byte[][]::new));
+                        ctx.jedis().zadd(PAYMENTS_TO_PROCESS_BACKLOG, backlog, instanceId);
+                    });
+                } catch (InterruptedException e) {
+                    return;
                 } catch (Exception e) {
                     // I don't care about it
                 }
@@ -123,17 +199,32 @@ public class PaymentProcessorService {
     private void processPayment() {
         redisExecutor
                 .execute(ctx -> {
-                    ofNullable(ctx.jedis()
-                            .lpop(PAYMENTS_TO_PROCESS + ":" + instanceId, batchSize))
+                    Optional<String> peer = stealEnabled ? busiestPeer(ctx) : Optional.empty();
+                    byte[][] keys = peer
+                            .map(id -> new byte[][]{paymentsToProcessKey, paymentsToProcessKey(id)})
+                            .orElseGet(() -> new byte[][]{paymentsToProcessKey});
+                    // BLMPOP parks the connection on the server until payments arrive instead of polling an empty list,
+                    // and serves the keys in order, so the peer's list is only popped while our own one is empty
+                    KeyValue<byte[], List<byte[]>> popped = ctx.jedis()
+                            .blmpop(workerPopTimeoutSeconds, ListDirection.LEFT, batchSize, keys);
+                    if (popped == null) {
+                        return;
+                    }
+                    String owner = Arrays.equals(popped.getKey(), paymentsToProcessKey) ? instanceId : peer.orElseThrow();
+                    ctx.jedis().zadd(PAYMENTS_TO_PROCESS_BACKLOG, ctx.jedis().llen(popped.getKey()), owner);
+                    popped.getValue()
                             .stream()
-                            .flatMap(Collection::stream)
-                            .map(ctx.converterFor(RemotePaymentRequest.class))
+                            .map(ctx.decoderFor(RemotePaymentRequest.class))
                             .parallel()
                             .forEach(request -> {
+                                if (request.retryCount() == 0) {
+                                    queueWait.record(Duration.between(request.requestedAt(), Instant.now()));
+                                }
                                 try {
-                                    sleepIfNeeded(request);
                                     NewPaymentTask task = newPaymentTaskBuilder.apply(ctx).build();
                                     task.execute(request);
+                                } catch (RemotePaymentProcessorNotAvailableException ex) {
+                                    retry(request);
                                 } catch (RuntimeException ex) {
                                     LOGGER.error("Error while processing the payment {}. {}", request, ex.getMessage());
                                 }
@@ -142,26 +233,40 @@ public class PaymentProcessorService {
 
     }
 
-    private void sleepIfNeeded(RemotePaymentRequest request) {
-        ofNullable(request)
-                .map(RemotePaymentRequest::retryDelay)
-                .filter(Duration::isPositive)
-                .ifPresent(delay -> {
-                    try {
-                        Thread.sleep(delay);
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                });
+    private Optional<String> busiestPeer(RedisExecutor.RedisContext ctx) {
+        return ctx.jedis()
+                .zrevrangeByScore(PAYMENTS_TO_PROCESS_BACKLOG, "+inf", stealMinBacklog, 0, 2)
+                .stream()
+                .filter(id -> !id.equals(instanceId))
+                .findFirst();
+    }
+
+    private static byte[] paymentsToProcessKey(String instanceId) {
+        return (PAYMENTS_TO_PROCESS + ":" + instanceId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void retry(RemotePaymentRequest request) {
+        retryPolicy.nextDelay((int) request.retryCount(), Duration.between(request.requestedAt(), Instant.now()))
+                .ifPresentOrElse(
+                        delay -> {
+                            retried.increment();
+                            retries.schedule(request.retryOn(delay), delay);
+                        },
+                        () -> {
+                            abandoned.increment();
+                            LOGGER.warn("Giving up on payment {} after {} attempts", request.correlationId(), request.retryCount() + 1);
+                        });
     }
 
     @PreDestroy
     public void preDestroy() {
         this.executorService.shutdownNow();
+        this.retries.close();
     }
 
     public void fireAndForget(NewPaymentRequest newPaymentRequest) {
-        queue.offer(newPaymentRequest);
+        intake.increment();
+        queue.offer(newPaymentRequest.toNewPayment());
     }
 
 }
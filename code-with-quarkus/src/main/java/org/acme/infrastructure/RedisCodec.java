@@ -0,0 +1,11 @@
+package org.acme.infrastructure;
+
+/**
+ * Turns the values kept in Redis into bytes and back, selected by {@code redis.codec}.
+ */
+public interface RedisCodec {
+
+    byte[] encode(Object value);
+
+    <T> T decode(byte[] data, Class<T> type);
+}
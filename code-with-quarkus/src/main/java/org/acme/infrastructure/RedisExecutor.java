@@ -4,49 +4,72 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.enterprise.inject.Produces;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.JedisPooled;
 import redis.clients.jedis.UnifiedJedis;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.function.Supplier;
 
 import static java.util.Optional.ofNullable;
 
+/**
+ * Runs Redis commands on one long-lived {@link JedisPooled}, which borrows a pooled connection per command, so
+ * callers no longer pay for a connection setup on every call.
+ */
 @ApplicationScoped
 public class RedisExecutor {
 
-    private final Supplier<UnifiedJedis> unifiedJedisSupplier;
-    private final ObjectMapper objectMapper;
-    private final String redisHosts;
+    private final JedisPooled jedis;
+    private final RedisContext context;
 
     public RedisExecutor(@ConfigProperty(name = "quarkus.redis.hosts", defaultValue = "redis://localhost:6379")
                          String redisHosts,
+                         @ConfigProperty(name = "redis.pool.max-total", defaultValue = "64")
+                         int maxTotal,
+                         @ConfigProperty(name = "redis.pool.min-idle", defaultValue = "8")
+                         int minIdle,
+                         @ConfigProperty(name = "redis.pool.max-wait", defaultValue = "5s")
+                         Duration maxWait,
+                         @ConfigProperty(name = "redis.codec", defaultValue = "binary")
+                         String codec,
                          ObjectMapper objectMapper) {
-
-        this.redisHosts = redisHosts;
-        this.unifiedJedisSupplier = () -> new UnifiedJedis(redisHosts);
-        this.objectMapper = objectMapper;
+        ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+        poolConfig.setMaxTotal(maxTotal);
+        poolConfig.setMaxIdle(maxTotal);
+        poolConfig.setMinIdle(Math.min(minIdle, maxTotal));
+        poolConfig.setMaxWait(maxWait);
+        this.jedis = new JedisPooled(poolConfig, URI.create(redisHosts));
+        this.context = DefaultRedisContext.of(jedis, objectMapper, codec(codec, objectMapper));
     }
 
-    @Produces
-    public Supplier<UnifiedJedis> unifiedJedis() {
-        return this.unifiedJedisSupplier;
+    private static RedisCodec codec(String codec, ObjectMapper objectMapper) {
+        RedisCodec json = new JsonRedisCodec(objectMapper);
+        return switch (codec) {
+            case "json" -> json;
+            case "binary" -> new BinaryRedisCodec(json);
+            default -> throw new IllegalArgumentException("unknown redis.codec: " + codec);
+        };
     }
 
     public <T> T retrieve(Function<RedisContext, T> function) {
-        try (var jedis = unifiedJedisSupplier.get()) {
-            return function.apply(DefaultRedisContext.of(jedis, objectMapper));
-        }
+        return function.apply(context);
     }
 
     public void execute(Consumer<RedisContext> consumer) {
-        try (var jedis = unifiedJedisSupplier.get()) {
-            consumer.accept(DefaultRedisContext.of(jedis, objectMapper));
-        }
+        consumer.accept(context);
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        jedis.close();
     }
 
     public sealed interface RedisContext permits DefaultRedisContext {
@@ -55,6 +78,31 @@ public class RedisExecutor {
 
         ObjectMapper objectMapper();
 
+        RedisCodec codec();
+
+        default byte[] encode(Object value) {
+            return value == null ? null : codec().encode(value);
+        }
+
+        default <T> T decode(byte[] data, Class<T> type) {
+            return codec().decode(data, type);
+        }
+
+        default <T> Function<byte[], T> decoderFor(Class<T> type) {
+            return (byte[] data) -> decode(data, type);
+        }
+
+        /**
+         * Buffers the commands issued on the pipeline and sends them in a single round trip; their
+         * {@link redis.clients.jedis.Response}s can be read once this returns.
+         */
+        default void pipelined(Consumer<AbstractPipeline> commands) {
+            try (AbstractPipeline pipeline = jedis().pipelined()) {
+                commands.accept(pipeline);
+                pipeline.sync();
+            }
+        }
+
         default String encodeToJSON(Object object) {
             if (object == null)
                 return null;
@@ -103,9 +151,9 @@ public class RedisExecutor {
 
     }
 
-    record DefaultRedisContext(UnifiedJedis jedis, ObjectMapper objectMapper) implements RedisContext {
-        static DefaultRedisContext of(UnifiedJedis jedis, ObjectMapper objectMapper) {
-            return new DefaultRedisContext(jedis, objectMapper);
+    record DefaultRedisContext(UnifiedJedis jedis, ObjectMapper objectMapper, RedisCodec codec) implements RedisContext {
+        static DefaultRedisContext of(UnifiedJedis jedis, ObjectMapper objectMapper, RedisCodec codec) {
+            return new DefaultRedisContext(jedis, objectMapper, codec);
         }
     }
 }
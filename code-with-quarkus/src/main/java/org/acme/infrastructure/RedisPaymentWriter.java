@@ -0,0 +1,108 @@
+package org.acme.infrastructure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.domain.Payment;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups the {@link RedisPayments#register} calls of the parallel workers: callers enqueue their payment and
+ * wait, while a single writer registers everything that queued up since its last round trip in one batch.
+ * Under low load a batch is a single payment, so nobody waits for a batch to fill up.
+ */
+@ApplicationScoped
+public class RedisPaymentWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisPaymentWriter.class);
+
+    private final RedisExecutor redisExecutor;
+    private final int maxBatch;
+    private final boolean appendToLog;
+    private final BlockingQueue<PendingPayment> pending = new LinkedBlockingQueue<>();
+    private final Timer storeLatency;
+    private volatile boolean running = true;
+
+    private record PendingPayment(Payment payment, CompletableFuture<Void> registered) {
+    }
+
+    @Inject
+    public RedisPaymentWriter(RedisExecutor redisExecutor,
+                              MeterRegistry registry,
+                              @ConfigProperty(name = "redis.write.max-batch", defaultValue = "256")
+                              int maxBatch,
+                              @ConfigProperty(name = "payments.store", defaultValue = "redis")
+                              String store) {
+        this.redisExecutor = redisExecutor;
+        this.maxBatch = maxBatch;
+        // only the time index reads the payments log, so the default store does not grow a stream nobody reads
+        this.appendToLog = "time-index".equals(store);
+        this.storeLatency = Timer.builder("payments.worker.store")
+                .description("Time to register a processed payment, including the wait for its batch")
+                .register(registry);
+    }
+
+    @Startup
+    public void start() {
+        Thread.ofVirtual().name("redis-payment-writer").start(this::run);
+    }
+
+    public void register(Payment payment) {
+        long start = System.nanoTime();
+        PendingPayment pendingPayment = new PendingPayment(payment, new CompletableFuture<>());
+        pending.add(pendingPayment);
+        try {
+            pendingPayment.registered().join();
+        } finally {
+            storeLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void run() {
+        List<PendingPayment> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                PendingPayment first = pending.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, maxBatch - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingPayment> batch) {
+        try {
+            List<Payment> payments = batch.stream().map(PendingPayment::payment).toList();
+            redisExecutor.execute(ctx -> RedisPayments.register(ctx, payments, appendToLog));
+            batch.forEach(pendingPayment -> pendingPayment.registered().complete(null));
+        } catch (RuntimeException e) {
+            LOGGER.error("Error registering {} payments: {}", batch.size(), e.getMessage());
+            batch.forEach(pendingPayment -> pendingPayment.registered().completeExceptionally(e));
+        }
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        running = false;
+    }
+}
@@ -1,65 +1,241 @@
 package org.acme.infrastructure;
 
+import io.quarkus.arc.properties.IfBuildProperty;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.acme.domain.Payment;
 import org.acme.domain.PaymentSummary;
 import org.acme.domain.Payments;
 import org.acme.domain.PaymentsSummary;
 import org.acme.domain.RemotePaymentName;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @ApplicationScoped
+@IfBuildProperty(name = "payments.store", stringValue = "redis", enableIfMissing = true)
 public class RedisPayments implements Payments {
 
     private final static String HASH = "payments";
+    final static String LOG = HASH + ":log";
+    final static String GENERATION = "generation:" + HASH;
+    private final static String TOTALS = HASH + ":totals";
+    private final static String BY_TIME = HASH + ":by-time:";
+    private final static String BUCKET_COUNTS = HASH + ":bucket-counts:";
+    private final static String BUCKET_CENTS = HASH + ":bucket-cents:";
+    // the width of the buckets whose counts and cents are kept aggregated, see the summary script
+    static final long BUCKET_MILLIS = 100;
+    private final static RemotePaymentName[] PROCESSORS = RemotePaymentName.values();
+    // per processor: the sorted set of "<correlationId>:<cents>" scored by epoch millis, then the bucket counts and
+    // cents hashes keyed by epoch millis / BUCKET_MILLIS
+    private final static List<byte[]> PROCESSOR_KEYS = Arrays.stream(PROCESSORS)
+            .flatMap(name -> Stream.of(byTime(name), BUCKET_COUNTS + name.value(), BUCKET_CENTS + name.value()))
+            .map(RedisPayments::bytes)
+            .toList();
+    private final static List<byte[]> REGISTER_KEYS = Stream.concat(
+                    Stream.of(HASH, TOTALS, LOG).map(RedisPayments::bytes),
+                    PROCESSOR_KEYS.stream())
+            .toList();
+    // ARGV holds the bucket width, whether to append to the log and then seven values per payment, the processor's
+    // ordinal p locating its keys at KEYS[3 * p + 4] onwards
+    private final static int REGISTER_ARGS = 7;
+    private final static Script REGISTER_SCRIPT = new Script("""
+            local width = tonumber(ARGV[1])
+            for i = 3, #ARGV, 7 do
+              local id, encoded, p, name, value, at, cents =
+                  ARGV[i], ARGV[i + 1], tonumber(ARGV[i + 2]), ARGV[i + 3], ARGV[i + 4], ARGV[i + 5], ARGV[i + 6]
+              if redis.call('HSETNX', KEYS[1], id, encoded) == 1 then
+                local bucket = tostring(math.floor(tonumber(at) / width))
+                redis.call('ZADD', KEYS[3 * p + 4], at, id .. ':' .. cents)
+                redis.call('HINCRBY', KEYS[3 * p + 5], bucket, 1)
+                redis.call('HINCRBY', KEYS[3 * p + 6], bucket, cents)
+                redis.call('HINCRBY', KEYS[2], value .. ':count', 1)
+                redis.call('HINCRBY', KEYS[2], value .. ':cents', cents)
+                if ARGV[2] == '1' then
+                  redis.call('XADD', KEYS[3], '*', 'processor', name, 'at', at, 'cents', cents)
+                end
+              end
+            end
+            """);
+    // counts and sums each processor's payments in the score window [ARGV[1], ARGV[2]] ("-inf" and "+inf" for open
+    // bounds): the buckets the window covers whole come from the aggregates, only the members of the two buckets
+    // it covers partly are read, so the cost grows with the window's length in buckets rather than in payments
+    private final static Script SUMMARY_SCRIPT = new Script("""
+            local width = tonumber(ARGV[3])
+            local function sumMembers(key, from, to)
+              local members = redis.call('ZRANGE', key, from, to, 'BYSCORE')
+              local cents = 0
+              for _, member in ipairs(members) do
+                cents = cents + tonumber(string.match(member, ':(-?%d+)$'))
+              end
+              return #members, cents
+            end
+            local function sumBuckets(key, fromBucket, toBucket)
+              local sum = 0
+              local fields = {}
+              for bucket = fromBucket, toBucket do
+                fields[#fields + 1] = tostring(bucket)
+                if #fields == 1000 or bucket == toBucket then
+                  for _, value in ipairs(redis.call('HMGET', key, unpack(fields))) do
+                    if value then
+                      sum = sum + tonumber(value)
+                    end
+                  end
+                  fields = {}
+                end
+              end
+              return sum
+            end
+            local result = {}
+            for p = 1, #KEYS / 3 do
+              local byTime, counts, cents = KEYS[3 * p - 2], KEYS[3 * p - 1], KEYS[3 * p]
+              local count, sum = 0, 0
+              local first = redis.call('ZRANGE', byTime, 0, 0, 'WITHSCORES')
+              if #first > 0 then
+                local last = redis.call('ZRANGE', byTime, -1, -1, 'WITHSCORES')
+                local from = ARGV[1] == '-inf' and tonumber(first[2]) or math.max(tonumber(ARGV[1]), tonumber(first[2]))
+                local to = ARGV[2] == '+inf' and tonumber(last[2]) or math.min(tonumber(ARGV[2]), tonumber(last[2]))
+                local fromBucket = math.ceil(from / width)
+                local toBucket = math.floor((to + 1) / width) - 1
+                if from > to then
+                  -- nothing in the window
+                elseif fromBucket > toBucket then
+                  count, sum = sumMembers(byTime, from, to)
+                else
+                  local headCount, headCents = sumMembers(byTime, from, fromBucket * width - 1)
+                  local tailCount, tailCents = sumMembers(byTime, (toBucket + 1) * width, to)
+                  count = headCount + tailCount + sumBuckets(counts, fromBucket, toBucket)
+                  sum = headCents + tailCents + sumBuckets(cents, fromBucket, toBucket)
+                end
+              end
+              result[2 * p - 1] = count
+              result[2 * p] = sum
+            end
+            return result
+            """);
     private final RedisExecutor redisExecutor;
 
+    /**
+     * A Lua script run with EVALSHA, loaded with SCRIPT LOAD on first use and again once Redis forgot it.
+     */
+    private static final class Script {
+
+        private final String source;
+        private volatile byte[] sha;
+
+        Script(String source) {
+            this.source = source;
+        }
+
+        Object eval(RedisExecutor.RedisContext ctx, List<byte[]> keys, List<byte[]> args) {
+            byte[] current = sha;
+            if (current != null) {
+                try {
+                    return ctx.jedis().evalsha(current, keys, args);
+                } catch (JedisNoScriptException e) {
+                    // the script cache was flushed or Redis restarted, load it again
+                }
+            }
+            current = bytes(ctx.jedis().scriptLoad(source));
+            sha = current;
+            return ctx.jedis().evalsha(current, keys, args);
+        }
+    }
+
     public RedisPayments(RedisExecutor redisExecutor) {
         this.redisExecutor = redisExecutor;
     }
 
-    public static void register(RedisExecutor.RedisContext ctx, Payment newPayment) {
-        ctx.jedis().hsetnx(HASH, newPayment.correlationId(), ctx.encodeToJSON(newPayment));
+    public static void register(RedisExecutor.RedisContext ctx, Payment newPayment, boolean appendToLog) {
+        register(ctx, List.of(newPayment), appendToLog);
+    }
+
+    /**
+     * Registers the payments in a single round trip whatever their number, with one run of the register script
+     * that Redis executes atomically: each payment whose correlation id is new is added to the payments hash, to
+     * its processor's sorted set scored by epoch millis and bucket aggregates, to the running totals and, with
+     * {@code appendToLog}, to the log that {@link TimeIndexedPayments} follows. A failed call so leaves none of
+     * them behind, and retrying the batch registers exactly the payments that were missing.
+     */
+    public static void register(RedisExecutor.RedisContext ctx, List<Payment> newPayments, boolean appendToLog) {
+        if (newPayments.isEmpty()) {
+            return;
+        }
+        List<byte[]> args = new ArrayList<>(2 + newPayments.size() * REGISTER_ARGS);
+        args.add(bytes(String.valueOf(BUCKET_MILLIS)));
+        args.add(bytes(appendToLog ? "1" : "0"));
+        for (Payment newPayment : newPayments) {
+            args.add(bytes(newPayment.correlationId()));
+            args.add(ctx.encode(newPayment));
+            args.add(bytes(String.valueOf(newPayment.processedBy().ordinal())));
+            args.add(bytes(newPayment.processedBy().name()));
+            args.add(bytes(newPayment.processedBy().value()));
+            args.add(bytes(String.valueOf(newPayment.createAt().toEpochMilli())));
+            args.add(bytes(String.valueOf(toCents(newPayment.amount()))));
+        }
+        REGISTER_SCRIPT.eval(ctx, REGISTER_KEYS, args);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String byTime(RemotePaymentName name) {
+        return BY_TIME + name.value();
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_DOWN).longValueExact();
     }
 
     public PaymentsSummary getSummary(final Instant from, final Instant to) {
         return redisExecutor.retrieve(ctx -> getSummary(ctx, from, to));
     }
 
+    /**
+     * Summarizes the {@code [from, to]} window inside Redis: the summary script adds up each processor's bucket
+     * aggregates and the members at the window's edges, and only returns two numbers per processor.
+     */
     public static PaymentsSummary getSummary(final RedisExecutor.RedisContext ctx, Instant from, Instant to) {
+        if (from == null && to == null) {
+            return getTotals(ctx);
+        }
+        long fromMillis = TimeIndexedPayments.fromEpochMillis(from);
+        long toMillis = TimeIndexedPayments.toEpochMillis(to);
+        List<byte[]> window = Stream.of(
+                        fromMillis == Long.MIN_VALUE ? "-inf" : String.valueOf(fromMillis),
+                        toMillis == Long.MAX_VALUE ? "+inf" : String.valueOf(toMillis),
+                        String.valueOf(BUCKET_MILLIS))
+                .map(RedisPayments::bytes)
+                .toList();
+        @SuppressWarnings("unchecked")
+        List<Long> counters = (List<Long>) SUMMARY_SCRIPT.eval(ctx, PROCESSOR_KEYS, window);
         Map<RemotePaymentName, PaymentSummary> summary = new HashMap<>();
-
-        Predicate<Payment> fromTo = getPaymentPredicate(from, to);
-
-        ctx.jedis()
-                .hgetAll(HASH)
-                .values()
-                .stream()
-                .map(json -> ctx.decodeFromJSON(json, Payment.class))
-                .filter(fromTo)
-                .forEach(payment -> {
-                    summary.put(payment.processedBy(), summary.computeIfAbsent(
-                                    payment.processedBy(), k -> PaymentSummary.ZERO)
-                            .increment(payment));
-                });
-
+        for (int i = 0; i < PROCESSORS.length; i++) {
+            summary.put(PROCESSORS[i], PaymentSummary.of(
+                    Math.toIntExact(counters.get(2 * i)),
+                    BigDecimal.valueOf(counters.get(2 * i + 1), 2)));
+        }
         return PaymentsSummary.of(summary);
     }
 
-    private static Predicate<Payment> getPaymentPredicate(Instant from, Instant to) {
-        Predicate<Payment> fromWasOmitted = unused -> from == null;
-        Predicate<Payment> toWasOmitted = unused -> to == null;
-
-        Predicate<Payment> afterOrEqualFrom = payment -> from != null && from.isBefore(payment.createAt()) || from.equals(payment.createAt());
-        Predicate<Payment> beforeOrEqualTo = payment -> to != null && to.isAfter(payment.createAt()) || to.equals(payment.createAt());
-
-        Predicate<Payment> fromTo = fromWasOmitted.or(afterOrEqualFrom)
-                .and(toWasOmitted.or(beforeOrEqualTo));
-        return fromTo;
+    private static PaymentsSummary getTotals(final RedisExecutor.RedisContext ctx) {
+        Map<String, String> totals = ctx.jedis().hgetAll(TOTALS);
+        Map<RemotePaymentName, PaymentSummary> summary = new HashMap<>();
+        for (RemotePaymentName name : RemotePaymentName.values()) {
+            summary.put(name, PaymentSummary.of(
+                    Integer.parseInt(totals.getOrDefault(name.value() + ":count", "0")),
+                    BigDecimal.valueOf(Long.parseLong(totals.getOrDefault(name.value() + ":cents", "0")), 2)));
+        }
+        return PaymentsSummary.of(summary);
     }
 
     public void purge() {
@@ -68,8 +244,12 @@ public class RedisPayments implements Payments {
 
     public static void purge(RedisExecutor.RedisContext ctx) {
         var jedis = ctx.jedis();
-        jedis.keys(HASH + "*")
-                .stream()
-                .forEach(jedis::del);
+        var keys = jedis.keys(HASH + "*");
+        if (!keys.isEmpty()) {
+            // a single DEL resets the payments, the log, the sorted sets, the bucket aggregates and the running totals
+            // atomically
+            jedis.del(keys.toArray(String[]::new));
+        }
+        jedis.incr(GENERATION);
     }
 }
@@ -0,0 +1,145 @@
+package org.acme.infrastructure;
+
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.domain.DefaultPaymentProcessor;
+import org.acme.domain.FallbackPaymentProcessor;
+import org.acme.domain.RemotePaymentName;
+import org.acme.domain.RemotePaymentProcessorHealth;
+import org.acme.domain.RemotePaymentProcessorHealthCheck;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.params.SetParams;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Keeps the last known health of each payment processor so payments can be steered to a working processor
+ * before the first attempt.
+ * <p>
+ * The processors allow one health check every 5 seconds for all the instances together, so on each interval
+ * only the instance holding the {@code health:lock:<processor>} key calls {@code /payments/service-health} and
+ * shares the answer through {@code health:<processor>}; every instance refreshes its local copy from there.
+ */
+@ApplicationScoped
+public class RemotePaymentProcessorHealthMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemotePaymentProcessorHealthMonitor.class);
+    private static final Duration MIN_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration REFRESH_INTERVAL = Duration.ofMillis(500);
+
+    private final RedisExecutor redisExecutor;
+    private final String instanceId;
+    private final Map<RemotePaymentName, RemotePaymentProcessorHealthCheck> healthChecks;
+    private final Map<RemotePaymentName, Duration> intervals;
+    private final Map<RemotePaymentName, RemotePaymentProcessorHealth> healthStates = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    @Inject
+    public RemotePaymentProcessorHealthMonitor(
+            RedisExecutor redisExecutor,
+            @ConfigProperty(name = "instance.id")
+            Optional<String> instanceId,
+            @RestClient
+            DefaultPaymentProcessor defaultPaymentProcessor,
+            @RestClient
+            FallbackPaymentProcessor fallbackPaymentProcessor,
+            @ConfigProperty(name = "default-payment-processor.healthcheck.interval", defaultValue = "5s")
+            Duration defaultInterval,
+            @ConfigProperty(name = "fallback-payment-processor.healthcheck.interval", defaultValue = "5s")
+            Duration fallbackInterval) {
+        this.redisExecutor = redisExecutor;
+        this.instanceId = instanceId.orElseGet(() -> UUID.randomUUID().toString());
+        this.healthChecks = Map.of(
+                RemotePaymentName.DEFAULT, defaultPaymentProcessor,
+                RemotePaymentName.FALLBACK, fallbackPaymentProcessor);
+        this.intervals = Map.of(
+                RemotePaymentName.DEFAULT, max(defaultInterval, MIN_INTERVAL),
+                RemotePaymentName.FALLBACK, max(fallbackInterval, MIN_INTERVAL));
+        // until the first answer arrives both processors are assumed to be up
+        for (RemotePaymentName name : RemotePaymentName.values()) {
+            healthStates.put(name, RemotePaymentProcessorHealth.HEALTH);
+        }
+    }
+
+    private static Duration max(Duration interval, Duration min) {
+        return interval.compareTo(min) < 0 ? min : interval;
+    }
+
+    @Startup
+    public void start() {
+        Thread.startVirtualThread(() -> {
+            while (running) {
+                try {
+                    redisExecutor.execute(ctx -> {
+                        for (RemotePaymentName name : healthChecks.keySet()) {
+                            refresh(ctx, name);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Error refreshing the payment processors health: {}", e.getMessage());
+                }
+                try {
+                    Thread.sleep(REFRESH_INTERVAL);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        });
+    }
+
+    private void refresh(RedisExecutor.RedisContext ctx, RemotePaymentName name) {
+        String key = "health:" + name.value();
+        String lock = ctx.jedis().set("health:lock:" + name.value(), instanceId,
+                SetParams.setParams().nx().px(intervals.get(name).toMillis()));
+        if ("OK".equals(lock)) {
+            check(name).ifPresent(health -> ctx.jedis().set(key, ctx.encodeToJSON(health)));
+        }
+        ofNullable(ctx.decodeFromJSON(ctx.jedis().get(key), RemotePaymentProcessorHealth.class))
+                .ifPresent(health -> update(name, health));
+    }
+
+    private Optional<RemotePaymentProcessorHealth> check(RemotePaymentName name) {
+        try {
+            RestResponse<RemotePaymentProcessorHealth> response = healthChecks.get(name).healthCheck();
+            if (response.getStatus() == RestResponse.StatusCode.OK && response.getEntity() != null) {
+                return Optional.of(response.getEntity());
+            }
+            if (response.getStatus() == RestResponse.StatusCode.TOO_MANY_REQUESTS) {
+                return Optional.empty();
+            }
+            return Optional.of(RemotePaymentProcessorHealth.UNHEALTH);
+        } catch (Exception e) {
+            LOGGER.warn("Error checking the {} payment processor health: {}", name.value(), e.getMessage());
+            return Optional.of(RemotePaymentProcessorHealth.UNHEALTH);
+        }
+    }
+
+    private void update(RemotePaymentName name, RemotePaymentProcessorHealth health) {
+        RemotePaymentProcessorHealth previous = healthStates.put(name, health);
+        if (previous == null || previous.failing() != health.failing()) {
+            LOGGER.info("The {} payment processor is now {}", name.value(), health.failing() ? "failing" : "healthy");
+        }
+    }
+
+    public RemotePaymentProcessorHealth health(RemotePaymentName name) {
+        return name.healthState(healthStates::get);
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        running = false;
+    }
+}
@@ -0,0 +1,36 @@
+package org.acme.infrastructure;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter bounded by a number of attempts and an end-to-end time budget per payment.
+ */
+public record RetryPolicy(Duration baseDelay, Duration maxDelay, int maxAttempts, Duration budget) {
+
+    public RetryPolicy {
+        if (baseDelay.isNegative() || baseDelay.isZero()) {
+            throw new IllegalArgumentException("baseDelay must be positive");
+        }
+        if (maxDelay.compareTo(baseDelay) < 0) {
+            throw new IllegalArgumentException("maxDelay must not be shorter than baseDelay");
+        }
+    }
+
+    /**
+     * The delay before the next attempt, drawn between half and the whole of {@code baseDelay * 2^attempts}
+     * (capped at {@code maxDelay}), or empty once the attempts or the budget are exhausted.
+     */
+    public Optional<Duration> nextDelay(int attempts, Duration elapsed) {
+        Duration remaining = budget.minus(elapsed);
+        if (attempts >= maxAttempts || remaining.isNegative() || remaining.isZero()) {
+            return Optional.empty();
+        }
+        long base = baseDelay.toNanos();
+        long exponential = attempts < Long.numberOfLeadingZeros(base) - 1 ? base << attempts : Long.MAX_VALUE;
+        long ceiling = Math.min(maxDelay.toNanos(), exponential);
+        long delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        return Optional.of(Duration.ofNanos(Math.min(delay, remaining.toNanos())));
+    }
+}
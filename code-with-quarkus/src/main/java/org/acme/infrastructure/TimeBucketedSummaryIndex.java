@@ -0,0 +1,292 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Per-processor Fenwick trees of payment count and cents, keyed by time bucket.
+ * <p>
+ * Adding a payment and summarizing any {@code [from, to]} window are both {@code O(log n)} in the number of
+ * buckets. The trees start around the first bucket seen and grow on demand: to the right by doubling, which
+ * keeps every existing node, and to the left by rebuilding, which only happens for payments older than the
+ * first one.
+ * <p>
+ * The trees never grow past {@code maxCapacity} buckets, four {@code long}s each: by default {@code 1 << 20}
+ * buckets, about 17 minutes of 1 ms buckets in 32 MB. Once the payments span more than that, the oldest buckets
+ * are folded into per-processor totals. Those still count towards the windows that cover all of them, such as
+ * the ones starting before the first payment, and windows that miss all of them are unaffected, but a window
+ * that overlaps only part of the folded buckets has no exact answer here: {@link #trySummarize} returns nothing
+ * for it, so the caller can scan its payments instead, and {@link #summarize} fails.
+ */
+public final class TimeBucketedSummaryIndex {
+
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 16;
+    static final int DEFAULT_MAX_CAPACITY = 1 << 20;
+    private static final RemotePaymentName[] PROCESSORS = RemotePaymentName.values();
+
+    private final long bucketMillis;
+    private final int initialCapacity;
+    private final int maxCapacity;
+    private final StampedLock lock = new StampedLock();
+    private Trees trees;
+    private long firstBucket;
+    // every folded payment is in a bucket before this one
+    private long foldedBefore = Long.MIN_VALUE;
+    // the buckets the folded payments span, empty while foldedFrom > foldedTo
+    private long foldedFrom = Long.MAX_VALUE;
+    private long foldedTo = Long.MIN_VALUE;
+
+    public TimeBucketedSummaryIndex(long bucketMillis) {
+        this(bucketMillis, DEFAULT_INITIAL_CAPACITY, DEFAULT_MAX_CAPACITY);
+    }
+
+    public TimeBucketedSummaryIndex(long bucketMillis, int initialCapacity, int maxCapacity) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("bucketMillis must be positive");
+        }
+        if (initialCapacity <= 0 || Integer.bitCount(initialCapacity) != 1) {
+            throw new IllegalArgumentException("initialCapacity must be a positive power of two");
+        }
+        if (maxCapacity < initialCapacity || Integer.bitCount(maxCapacity) != 1) {
+            throw new IllegalArgumentException("maxCapacity must be a power of two no smaller than initialCapacity");
+        }
+        this.bucketMillis = bucketMillis;
+        this.initialCapacity = initialCapacity;
+        this.maxCapacity = maxCapacity;
+    }
+
+    private record Trees(long originBucket, int capacity, long[][] counts, long[][] cents, long[] folded) {
+
+        static Trees empty(long originBucket, int capacity, long[] folded) {
+            return new Trees(originBucket, capacity,
+                    new long[PROCESSORS.length][capacity + 1],
+                    new long[PROCESSORS.length][capacity + 1],
+                    folded);
+        }
+
+        void add(int processor, int index, long count, long amountInCents) {
+            long[] counts = this.counts[processor];
+            long[] cents = this.cents[processor];
+            for (int i = index; i <= capacity; i += i & -i) {
+                counts[i] += count;
+                cents[i] += amountInCents;
+            }
+        }
+
+        void fold(int processor, long count, long amountInCents) {
+            folded[processor * 2] += count;
+            folded[processor * 2 + 1] += amountInCents;
+        }
+
+        long prefix(long[] tree, int index) {
+            long sum = 0;
+            for (int i = index; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+
+        int indexOf(long bucket) {
+            return (int) (bucket - originBucket) + 1;
+        }
+
+        long lastBucket() {
+            return originBucket + capacity - 1;
+        }
+
+        Trees doubled() {
+            int doubledCapacity = capacity << 1;
+            long[][] doubledCounts = new long[PROCESSORS.length][];
+            long[][] doubledCents = new long[PROCESSORS.length][];
+            for (int p = 0; p < PROCESSORS.length; p++) {
+                doubledCounts[p] = Arrays.copyOf(counts[p], doubledCapacity + 1);
+                doubledCents[p] = Arrays.copyOf(cents[p], doubledCapacity + 1);
+                // with power of two sizes the old root already holds the sum of every existing bucket
+                doubledCounts[p][doubledCapacity] = counts[p][capacity];
+                doubledCents[p][doubledCapacity] = cents[p][capacity];
+            }
+            return new Trees(originBucket, doubledCapacity, doubledCounts, doubledCents, folded);
+        }
+
+        /**
+         * Rebuilds the trees over {@code newCapacity} buckets from {@code newOriginBucket}, folding the buckets
+         * before it. The new range must cover every non-empty bucket after it.
+         */
+        Trees rebased(long newOriginBucket, int newCapacity) {
+            Trees rebased = empty(newOriginBucket, newCapacity, folded.clone());
+            long shift = originBucket - newOriginBucket;
+            for (int p = 0; p < PROCESSORS.length; p++) {
+                long[] pointCounts = points(counts[p], capacity);
+                long[] pointCents = points(cents[p], capacity);
+                for (int i = 1; i <= capacity; i++) {
+                    long index = i + shift;
+                    if (index < 1) {
+                        rebased.fold(p, pointCounts[i], pointCents[i]);
+                    } else {
+                        rebased.counts[p][(int) index] = pointCounts[i];
+                        rebased.cents[p][(int) index] = pointCents[i];
+                    }
+                }
+                build(rebased.counts[p], newCapacity);
+                build(rebased.cents[p], newCapacity);
+            }
+            return rebased;
+        }
+
+        static long[] points(long[] tree, int capacity) {
+            long[] points = tree.clone();
+            // a node sums its own bucket and its children, which all come before it
+            for (int i = capacity; i > 0; i--) {
+                int parent = i + (i & -i);
+                if (parent <= capacity) {
+                    points[parent] -= points[i];
+                }
+            }
+            return points;
+        }
+
+        static void build(long[] tree, int capacity) {
+            for (int i = 1; i <= capacity; i++) {
+                int parent = i + (i & -i);
+                if (parent <= capacity) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+    }
+
+    public void add(RemotePaymentName processedBy, long epochMillis, long amountInCents) {
+        add(processedBy, epochMillis, 1, amountInCents);
+    }
+
+    public void add(RemotePaymentName processedBy, long epochMillis, long count, long amountInCents) {
+        long bucket = Math.floorDiv(epochMillis, bucketMillis);
+        long stamp = lock.writeLock();
+        try {
+            Trees current = ensureCovers(bucket);
+            if (bucket < current.originBucket()) {
+                current.fold(processedBy.ordinal(), count, amountInCents);
+            } else {
+                current.add(processedBy.ordinal(), current.indexOf(bucket), count, amountInCents);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Grows or slides the trees until they cover {@code bucket}, unless it is too old to fit, in which case its
+     * payments are folded.
+     */
+    private Trees ensureCovers(long bucket) {
+        if (trees == null) {
+            trees = Trees.empty(bucket - (initialCapacity >> 2), initialCapacity, new long[PROCESSORS.length * 2]);
+            firstBucket = bucket;
+        }
+        firstBucket = Math.min(firstBucket, bucket);
+        if (bucket < trees.originBucket()) {
+            long lastBucket = trees.lastBucket();
+            if (bucket < foldedBefore || lastBucket - bucket >= maxCapacity) {
+                foldedBefore = trees.originBucket();
+                foldedFrom = Math.min(foldedFrom, bucket);
+                foldedTo = Math.max(foldedTo, bucket);
+                return trees;
+            }
+            long newOriginBucket = Math.max(bucket - (trees.capacity() >> 2),
+                    Math.max(foldedBefore, lastBucket - maxCapacity + 1));
+            int newCapacity = trees.capacity();
+            while (lastBucket - newOriginBucket >= newCapacity) {
+                newCapacity <<= 1;
+            }
+            trees = trees.rebased(newOriginBucket, newCapacity);
+        }
+        while (bucket > trees.lastBucket()) {
+            if (trees.capacity() < maxCapacity) {
+                trees = trees.doubled();
+            } else {
+                // leaves a quarter of the capacity free after the bucket, so the rebuild is amortized
+                foldedBefore = bucket - trees.capacity() + 1 + (trees.capacity() >> 2);
+                foldedFrom = Math.min(foldedFrom, firstBucket);
+                foldedTo = Math.max(foldedTo, foldedBefore - 1);
+                trees = trees.rebased(foldedBefore, trees.capacity());
+            }
+        }
+        return trees;
+    }
+
+    /**
+     * Summarizes the {@code [from, to]} window, or fails if it overlaps only part of the folded buckets.
+     */
+    public PaymentsSummary summarize(long fromEpochMillis, long toEpochMillis) {
+        return trySummarize(fromEpochMillis, toEpochMillis).orElseThrow(() -> new IllegalStateException(
+                "the window " + fromEpochMillis + " - " + toEpochMillis + " overlaps only part of the folded buckets"));
+    }
+
+    /**
+     * Summarizes the {@code [from, to]} window, or returns nothing if it overlaps only part of the folded buckets.
+     */
+    public Optional<PaymentsSummary> trySummarize(long fromEpochMillis, long toEpochMillis) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            long[] totals = totals(trees, fromEpochMillis, toEpochMillis);
+            if (lock.validate(stamp)) {
+                return Optional.ofNullable(totals).map(TimeBucketedSummaryIndex::toPaymentsSummary);
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return Optional.ofNullable(totals(trees, fromEpochMillis, toEpochMillis))
+                    .map(TimeBucketedSummaryIndex::toPaymentsSummary);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns {@code [count, cents]} pairs, one per processor, or {@code null} when the folded payments make the
+     * window inexact.
+     */
+    private long[] totals(Trees current, long fromEpochMillis, long toEpochMillis) {
+        long[] totals = new long[PROCESSORS.length * 2];
+        if (current == null || fromEpochMillis > toEpochMillis) {
+            return totals;
+        }
+        long fromBucket = Math.floorDiv(fromEpochMillis, bucketMillis);
+        long toBucket = Math.floorDiv(toEpochMillis, bucketMillis);
+        if (fromBucket <= foldedTo && toBucket >= foldedFrom) {
+            if (fromBucket > foldedFrom || toBucket < foldedTo) {
+                return null;
+            }
+            System.arraycopy(current.folded(), 0, totals, 0, totals.length);
+        }
+        fromBucket = Math.max(fromBucket, current.originBucket());
+        toBucket = Math.min(toBucket, current.lastBucket());
+        if (fromBucket > toBucket) {
+            return totals;
+        }
+        int from = current.indexOf(fromBucket);
+        int to = current.indexOf(toBucket);
+        for (int p = 0; p < PROCESSORS.length; p++) {
+            totals[p * 2] += current.prefix(current.counts()[p], to) - current.prefix(current.counts()[p], from - 1);
+            totals[p * 2 + 1] += current.prefix(current.cents()[p], to) - current.prefix(current.cents()[p], from - 1);
+        }
+        return totals;
+    }
+
+    private static PaymentsSummary toPaymentsSummary(long[] totals) {
+        return PaymentsSummary.of(
+                toPaymentSummary(totals, RemotePaymentName.DEFAULT),
+                toPaymentSummary(totals, RemotePaymentName.FALLBACK));
+    }
+
+    private static PaymentSummary toPaymentSummary(long[] totals, RemotePaymentName name) {
+        return PaymentSummary.of(Math.toIntExact(totals[name.ordinal() * 2]),
+                BigDecimal.valueOf(totals[name.ordinal() * 2 + 1], 2));
+    }
+}
@@ -0,0 +1,130 @@
+package org.acme.infrastructure;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.domain.Payments;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.params.XReadParams;
+import redis.clients.jedis.resps.StreamEntry;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Answers summaries from a local {@link TimeBucketedSummaryIndex} that follows the {@code payments:log} stream
+ * appended by {@link RedisPayments#register}, so every instance sees the payments registered by all of them.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "payments.store", stringValue = "time-index")
+public class TimeIndexedPayments implements Payments {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimeIndexedPayments.class);
+
+    private final RedisExecutor redisExecutor;
+    private final long bucketMillis;
+    private final int batchSize;
+    private volatile TimeBucketedSummaryIndex index;
+    private volatile boolean running = true;
+    private TimeBucketedSummaryIndex following;
+    private String followingGeneration;
+    private StreamEntryID lastEntryId = new StreamEntryID();
+
+    @Inject
+    public TimeIndexedPayments(RedisExecutor redisExecutor,
+                               @ConfigProperty(name = "payments.time-index.bucket-millis", defaultValue = "1")
+                               long bucketMillis,
+                               @ConfigProperty(name = "batch-size", defaultValue = "1000")
+                               int batchSize) {
+        this.redisExecutor = redisExecutor;
+        this.bucketMillis = bucketMillis;
+        this.batchSize = batchSize;
+        this.index = new TimeBucketedSummaryIndex(bucketMillis);
+    }
+
+    @Startup
+    public void start() {
+        Thread.startVirtualThread(() -> {
+            while (running) {
+                try {
+                    redisExecutor.execute(this::follow);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Error following the payments log: {}", e.getMessage(), e);
+                    try {
+                        Thread.sleep(500);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    private void follow(RedisExecutor.RedisContext ctx) {
+        while (running) {
+            String generation = ctx.jedis().get(RedisPayments.GENERATION);
+            if (following == null || !Objects.equals(followingGeneration, generation)) {
+                // the log was purged, replay it from the beginning into a fresh index
+                following = new TimeBucketedSummaryIndex(bucketMillis);
+                followingGeneration = generation;
+                lastEntryId = new StreamEntryID();
+                index = following;
+            }
+            List<Map.Entry<String, List<StreamEntry>>> streams = ctx.jedis().xread(
+                    XReadParams.xReadParams().count(batchSize).block(500),
+                    Map.of(RedisPayments.LOG, lastEntryId));
+            if (streams == null) {
+                continue;
+            }
+            for (Map.Entry<String, List<StreamEntry>> stream : streams) {
+                for (StreamEntry entry : stream.getValue()) {
+                    Map<String, String> fields = entry.getFields();
+                    following.add(RemotePaymentName.valueOf(fields.get("processor")),
+                            Long.parseLong(fields.get("at")),
+                            Long.parseLong(fields.get("cents")));
+                    lastEntryId = entry.getID();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        running = false;
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Instant from, Instant to) {
+        // Redis answers the windows the index cannot, once it folded its oldest buckets
+        return index.trySummarize(fromEpochMillis(from), toEpochMillis(to))
+                .orElseGet(() -> redisExecutor.retrieve(ctx -> RedisPayments.getSummary(ctx, from, to)));
+    }
+
+    @Override
+    public void purge() {
+        redisExecutor.execute(RedisPayments::purge);
+        index = new TimeBucketedSummaryIndex(bucketMillis);
+    }
+
+    static long fromEpochMillis(Instant from) {
+        if (from == null) {
+            return Long.MIN_VALUE;
+        }
+        long millis = from.toEpochMilli();
+        return from.getNano() % 1_000_000 == 0 ? millis : millis + 1;
+    }
+
+    static long toEpochMillis(Instant to) {
+        return to == null ? Long.MAX_VALUE : to.toEpochMilli();
+    }
+}
@@ -0,0 +1,55 @@
+package org.acme.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.acme.domain.Payment;
+import org.acme.domain.RemotePaymentName;
+import org.acme.domain.RemotePaymentRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryRedisCodecTest {
+
+    private final JsonRedisCodec json = new JsonRedisCodec(new ObjectMapper().registerModule(new JavaTimeModule()));
+    private final BinaryRedisCodec binary = new BinaryRedisCodec(json);
+
+    @Test
+    void testRoundTripsPayments() {
+        Instant createAt = Instant.parse("2025-07-15T12:34:56.789Z");
+        for (String correlationId : new String[]{UUID.randomUUID().toString(), "not-a-uuid", "4A7901B8-7D26-4D9D-AA19-4DC1C7CF60B3"}) {
+            for (RemotePaymentName processor : RemotePaymentName.values()) {
+                Payment payment = Payment.of(correlationId, processor, new BigDecimal("19.90"), createAt);
+                assertEquals(payment, binary.decode(binary.encode(payment), Payment.class));
+            }
+        }
+    }
+
+    @Test
+    void testRoundTripsRemotePaymentRequests() {
+        RemotePaymentRequest request = new RemotePaymentRequest(UUID.randomUUID().toString(), new BigDecimal("0.05"),
+                Instant.parse("2025-07-15T12:34:56.789Z"), 3, Duration.ofMillis(70));
+        assertEquals(request, binary.decode(binary.encode(request), RemotePaymentRequest.class));
+
+        RemotePaymentRequest retried = request.retryOn(Duration.ofMillis(30));
+        assertEquals(retried, binary.decode(binary.encode(retried), RemotePaymentRequest.class));
+    }
+
+    @Test
+    void testIsSmallerThanJsonAndStillReadsJson() {
+        Payment payment = Payment.of(UUID.randomUUID().toString(), RemotePaymentName.FALLBACK, new BigDecimal("19.90"),
+                Instant.parse("2025-07-15T12:34:56.789Z"));
+        byte[] encoded = binary.encode(payment);
+        assertEquals(34, encoded.length);
+        assertTrue(json.encode(payment).length > 2 * encoded.length);
+
+        assertEquals(payment, binary.decode(json.encode(payment), Payment.class));
+        assertEquals(Map.of("up", true), binary.decode(binary.encode(Map.of("up", true)), Map.class));
+    }
+}
@@ -0,0 +1,100 @@
+package org.acme.infrastructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsoInstantParserTest {
+
+    private static final long MIN_SECOND = LocalDateTime.of(0, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_SECOND = LocalDateTime.of(9999, 12, 31, 23, 59, 59).toEpochSecond(ZoneOffset.UTC);
+    private static final String MUTATIONS = "0123456789-+:.TZtz [";
+
+    @Test
+    void testParsesTheFormatsTheApiReceives() {
+        assertEquals(Instant.parse("2025-07-15T12:34:56.789Z"), IsoInstantParser.parse("2025-07-15T12:34:56.789Z"));
+        assertEquals(Instant.parse("2025-07-15T12:34:56Z"), IsoInstantParser.parse("2025-07-15T12:34:56Z"));
+        assertEquals(Instant.parse("2025-07-15T09:34:00Z"), IsoInstantParser.parse("2025-07-15T12:34+03:00"));
+        assertEquals(Instant.parse("2025-07-15T14:04:56.000000001Z"), IsoInstantParser.parse("2025-07-15T12:34:56.000000001-01:30"));
+        assertEquals(Instant.parse("2025-07-15T12:34:56Z"), IsoInstantParser.parse("2025-07-15T12:34:56"));
+        assertEquals(Instant.parse("2024-02-29T00:00:00Z"), IsoInstantParser.parse("2024-02-29"));
+    }
+
+    @Test
+    void testLeavesEverythingElseToTheFormatters() {
+        String[] others = {"", "2025", "2023-02-29", "2025-07-15T24:00:00Z", "2025-07-15T12:34:56.Z",
+                "2025-07-15T12:34:56.1234567890Z", "2025-07-15T12:34:56+19:00", "2025-07-15t12:34:56z",
+                "2025-07-15T12:34:56Z[UTC]", "2025-07-15Z", "12:34:56", "+12025-07-15T12:34:56Z"};
+        for (String other : others) {
+            assertNull(IsoInstantParser.parse(other), other);
+        }
+    }
+
+    @Test
+    void testAgreesWithTheFormattersOnRandomTimestamps() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            String text = randomTimestamp(random);
+            Instant expected = Iso8601InstantConverter.parseWithFormatters(text);
+            assertNotNull(expected, text);
+            assertEquals(expected, IsoInstantParser.parse(text), text);
+            assertEquals(expected, Iso8601InstantConverter.parse(text), text);
+        }
+    }
+
+    @Test
+    void testNeverDisagreesWithTheFormattersOnMutatedTimestamps() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder text = new StringBuilder(randomTimestamp(random));
+            int position = random.nextInt(text.length());
+            switch (random.nextInt(3)) {
+                case 0 -> text.setCharAt(position, MUTATIONS.charAt(random.nextInt(MUTATIONS.length())));
+                case 1 -> text.deleteCharAt(position);
+                default -> text.insert(position, MUTATIONS.charAt(random.nextInt(MUTATIONS.length())));
+            }
+            String mutated = text.toString();
+            Instant fast = IsoInstantParser.parse(mutated);
+            if (fast != null) {
+                assertEquals(Iso8601InstantConverter.parseWithFormatters(mutated), fast, mutated);
+            }
+            assertEquals(Iso8601InstantConverter.parseWithFormatters(mutated), Iso8601InstantConverter.parse(mutated), mutated);
+        }
+    }
+
+    private static String randomTimestamp(SplittableRandom random) {
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(random.nextLong(MIN_SECOND, MAX_SECOND + 1),
+                random.nextInt(1_000_000_000), ZoneOffset.UTC);
+        StringBuilder text = new StringBuilder()
+                .append(String.format("%04d-%02d-%02d", dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth()));
+        if (random.nextInt(8) == 0) {
+            return text.toString();
+        }
+        text.append(String.format("T%02d:%02d", dateTime.getHour(), dateTime.getMinute()));
+        int precision = random.nextInt(-1, 10);
+        if (precision >= 0) {
+            text.append(String.format(":%02d", dateTime.getSecond()));
+        }
+        if (precision > 0) {
+            String nanos = String.format("%09d", dateTime.getNano());
+            text.append('.').append(nanos, 0, precision);
+        }
+        switch (random.nextInt(3)) {
+            case 0 -> text.append('Z');
+            case 1 -> {
+                int offsetMinutes = random.nextInt(-18 * 60, 18 * 60 + 1);
+                text.append(offsetMinutes < 0 ? '-' : '+')
+                        .append(String.format("%02d:%02d", Math.abs(offsetMinutes) / 60, Math.abs(offsetMinutes) % 60));
+            }
+            default -> {
+                // no offset, read as UTC
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,140 @@
+package org.acme.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the worker intake queue against the {@link LinkedBlockingQueue} it replaced, with the same
+ * producer/consumer ratios on both: {@code offer} stands for the HTTP threads accepting payments and {@code poll}
+ * for the dispatcher draining them.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class IntakeQueueBenchmark {
+
+    private static final NewPaymentRequest REQUEST = new NewPaymentRequest("4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3", 1990);
+
+    @Param({"ring", "linked"})
+    public String queue;
+
+    @Param({"1024", "1000000"})
+    public int capacity;
+
+    private IntakeQueue intake;
+
+    private interface IntakeQueue {
+        boolean offer(NewPaymentRequest request);
+
+        NewPaymentRequest poll();
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        intake = switch (queue) {
+            case "ring" -> {
+                MpmcRingBuffer<NewPaymentRequest> ring = new MpmcRingBuffer<>(capacity);
+                yield new IntakeQueue() {
+                    public boolean offer(NewPaymentRequest request) {
+                        return ring.offer(request);
+                    }
+
+                    public NewPaymentRequest poll() {
+                        return ring.poll();
+                    }
+                };
+            }
+            case "linked" -> {
+                LinkedBlockingQueue<NewPaymentRequest> linked = new LinkedBlockingQueue<>(capacity);
+                yield new IntakeQueue() {
+                    public boolean offer(NewPaymentRequest request) {
+                        return linked.offer(request);
+                    }
+
+                    public NewPaymentRequest poll() {
+                        return linked.poll();
+                    }
+                };
+            }
+            default -> throw new IllegalArgumentException("unknown queue: " + queue);
+        };
+    }
+
+    private void produce(Control control) {
+        while (!intake.offer(REQUEST) && !control.stopMeasurement) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void consume(Control control, Blackhole blackhole) {
+        NewPaymentRequest request;
+        while ((request = intake.poll()) == null && !control.stopMeasurement) {
+            Thread.onSpinWait();
+        }
+        blackhole.consume(request);
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public void oneToOneOffer(Control control) {
+        produce(control);
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public void oneToOnePoll(Control control, Blackhole blackhole) {
+        consume(control, blackhole);
+    }
+
+    @Benchmark
+    @Group("fourToOne")
+    @GroupThreads(4)
+    public void fourToOneOffer(Control control) {
+        produce(control);
+    }
+
+    @Benchmark
+    @Group("fourToOne")
+    @GroupThreads(1)
+    public void fourToOnePoll(Control control, Blackhole blackhole) {
+        consume(control, blackhole);
+    }
+
+    @Benchmark
+    @Group("fourToFour")
+    @GroupThreads(4)
+    public void fourToFourOffer(Control control) {
+        produce(control);
+    }
+
+    @Benchmark
+    @Group("fourToFour")
+    @GroupThreads(4)
+    public void fourToFourPoll(Control control, Blackhole blackhole) {
+        consume(control, blackhole);
+    }
+}
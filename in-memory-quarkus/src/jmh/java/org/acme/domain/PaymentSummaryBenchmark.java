@@ -0,0 +1,61 @@
+package org.acme.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PaymentSummary#increment} for a single payment and for a batch of them.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PaymentSummaryBenchmark {
+
+    @Param({"100", "10000"})
+    public int batchSize;
+
+    private PaymentSummary summary;
+    private Payment payment;
+    private List<Payment> batch;
+
+    @Setup
+    public void setUp() {
+        summary = PaymentSummary.ofCents(1_000, 1_990_000);
+        Instant now = Instant.parse("2025-07-15T12:34:56.789Z");
+        payment = Payment.of(UUID.randomUUID().toString(), RemotePaymentName.DEFAULT, 1990, now);
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(Payment.of(UUID.randomUUID().toString(), RemotePaymentName.DEFAULT, 1990 + i, now));
+        }
+    }
+
+    @Benchmark
+    public PaymentSummary incrementOne() {
+        return summary.increment(payment);
+    }
+
+    @Benchmark
+    public PaymentSummary incrementBatch() {
+        return summary.increment(batch);
+    }
+}
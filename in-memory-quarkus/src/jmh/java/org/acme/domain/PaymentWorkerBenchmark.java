@@ -0,0 +1,93 @@
+package org.acme.domain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.acme.infrastructure.DiskPaymentOverflow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the worker intake as the HTTP threads and the dispatcher use it: {@link PaymentWorker#accept} followed
+ * by the dispatcher's take, one payment at a time and in bursts of {@value #BURST}. With a
+ * {@code worker.queue-buffer} smaller than the burst the rest of it goes through the disk overflow, which is what
+ * a traffic spike costs.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PaymentWorkerBenchmark {
+
+    static final int BURST = 16_384;
+    private static final NewPaymentRequest REQUEST = new NewPaymentRequest("4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3", 1990);
+
+    @Param({"1024", "10000", "1000000"})
+    public int queueBuffer;
+
+    private Path spillDirectory;
+    private DiskPaymentOverflow overflow;
+    private PaymentWorker worker;
+
+    @Setup
+    public void setUp() throws IOException {
+        spillDirectory = Files.createTempDirectory("payments-spill");
+        overflow = new DiskPaymentOverflow(spillDirectory.toString(), 65_536, 4_194_304);
+        // the dispatcher is not started, so the processor, the store and the replication are never reached
+        worker = new PaymentWorker(null, null, null, overflow, new SimpleMeterRegistry(),
+                queueBuffer, Duration.ofMillis(10),
+                10, 1, 256, 0.9, 2.0,
+                Duration.ofMillis(10), Duration.ofSeconds(1), 64, Duration.ofSeconds(60),
+                Duration.ofMillis(10), 512);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        worker.preDestroy();
+        overflow.preDestroy();
+        try (Stream<Path> files = Files.walk(spillDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public NewPaymentRequest acceptThenTake() {
+        worker.accept(REQUEST);
+        return worker.takeNewPaymentRequest();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void burst(Blackhole blackhole) {
+        for (int i = 0; i < BURST; i++) {
+            blackhole.consume(worker.accept(REQUEST));
+        }
+        for (int i = 0; i < BURST; i++) {
+            blackhole.consume(worker.takeNewPaymentRequest());
+        }
+    }
+}
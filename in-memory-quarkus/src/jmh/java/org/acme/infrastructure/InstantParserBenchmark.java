@@ -0,0 +1,44 @@
+package org.acme.infrastructure;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link IsoInstantParser} with the {@code DateTimeFormatter} cascade it fronts in
+ * {@link InstantConverter}, on the shapes {@code /payments-summary} receives. The later a shape's formatter comes
+ * in the cascade, the more exceptions the old path throws before it matches.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstantParserBenchmark {
+
+    @Param({"2025-07-15T12:34:56.789Z", "2025-07-15T12:34:56-03:00", "2025-07-15T12:34:56", "2025-07-15"})
+    public String input;
+
+    @Benchmark
+    public Instant singlePass() {
+        return InstantConverter.parse(input);
+    }
+
+    @Benchmark
+    public Instant formatters() {
+        return InstantConverter.parseWithFormatters(input);
+    }
+}
@@ -0,0 +1,99 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link InMemoryPayments} at the sizes a test run reaches: filling an empty store, and the unbounded and
+ * windowed summaries over a full one, with and without the summary cache. The payments are spread evenly over a
+ * minute and the window covers ten seconds of it.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PaymentStoreBenchmark {
+
+    private static final Instant START = Instant.parse("2025-07-15T12:00:00Z");
+    private static final long SPAN_MILLIS = 60_000;
+    private static final int DISTINCT_PAYMENTS = 4096;
+
+    @Param({"10000", "1000000", "5000000"})
+    public int payments;
+
+    @Param({"0", "256"})
+    public int cacheEntries;
+
+    private Payment[] samples;
+    private InMemoryPayments full;
+    private InMemoryPayments empty;
+    private Instant from;
+    private Instant to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        samples = new Payment[DISTINCT_PAYMENTS];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = Payment.of(UUID.randomUUID().toString(),
+                    RemotePaymentName.values()[i % 2],
+                    1990 + i,
+                    START.plusMillis(i * SPAN_MILLIS / DISTINCT_PAYMENTS));
+        }
+        full = new InMemoryPayments(cacheEntries);
+        fill(full);
+        from = START.plusSeconds(20);
+        to = START.plusSeconds(30);
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyStore() {
+        empty = new InMemoryPayments(cacheEntries);
+    }
+
+    private void fill(InMemoryPayments store) {
+        for (int i = 0; i < payments; i++) {
+            store.add(samples[i & (DISTINCT_PAYMENTS - 1)]);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public InMemoryPayments add() {
+        fill(empty);
+        return empty;
+    }
+
+    @Benchmark
+    public PaymentsSummary unboundedSummary() {
+        return full.getSummary(null, null);
+    }
+
+    @Benchmark
+    public PaymentsSummary windowedSummary() {
+        return full.getSummary(from, to);
+    }
+}
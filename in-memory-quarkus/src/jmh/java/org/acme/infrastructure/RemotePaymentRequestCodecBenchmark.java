@@ -0,0 +1,62 @@
+package org.acme.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.acme.domain.RemotePaymentRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the JSON body sent to the payment processors: Jackson, configured like the application's mapper, in
+ * both directions, against the {@link RemotePaymentRequestEncoder} template used by the Vert.x engine.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RemotePaymentRequestCodecBenchmark {
+
+    private ObjectMapper objectMapper;
+    private RemotePaymentRequest request;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        new InstantConverter().customize(objectMapper);
+        request = new RemotePaymentRequest(UUID.randomUUID().toString(), 1990, Instant.parse("2025-07-15T12:34:56.789Z"));
+        encoded = objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public byte[] jacksonEncode() throws IOException {
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public RemotePaymentRequest jacksonDecode() throws IOException {
+        return objectMapper.readValue(encoded, RemotePaymentRequest.class);
+    }
+
+    @Benchmark
+    public byte[] templateEncode() {
+        return RemotePaymentRequestEncoder.encode(request);
+    }
+}
@@ -8,12 +8,16 @@ import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import org.acme.domain.PaymentWorker;
 import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+import org.acme.domain.RemotePaymentProcessorHealth;
 import org.eclipse.microprofile.health.HealthCheck;
 
 @ApplicationScoped
@@ -38,6 +42,22 @@ public class DummyInternalPaymentsResources {
         return PaymentsSummary.ZERO;
     }
 
+    @Path("/internal/summary-deltas")
+    @POST
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    @Produces(MediaType.TEXT_PLAIN)
+    public long pushSummaryDeltas(byte[] batch) {
+        // acknowledges everything, so the sender never replays
+        return Long.MAX_VALUE;
+    }
+
+    @Path("/internal/processor-health/{processor}")
+    @PUT
+    public void shareProcessorHealth(@PathParam("processor") RemotePaymentName processor,
+                                     RemotePaymentProcessorHealth health) {
+        // without a peer this instance checks the processors on its own
+    }
+
     @Path("/internal/purge-payments")
     @POST
     public void purgeInternalPayments() {
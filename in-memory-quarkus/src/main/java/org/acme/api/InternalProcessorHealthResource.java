@@ -0,0 +1,32 @@
+package org.acme.api;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.core.MediaType;
+import org.acme.domain.RemotePaymentName;
+import org.acme.domain.RemotePaymentProcessorHealth;
+import org.acme.domain.RemotePaymentProcessorHealthMonitor;
+
+@Path("/")
+@Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class InternalProcessorHealthResource {
+
+    private final RemotePaymentProcessorHealthMonitor healthMonitor;
+
+    @Inject
+    public InternalProcessorHealthResource(RemotePaymentProcessorHealthMonitor healthMonitor) {
+        this.healthMonitor = healthMonitor;
+    }
+
+    @PUT
+    @Path("/internal/processor-health/{processor}")
+    public void shareProcessorHealth(@PathParam("processor") RemotePaymentName processor,
+                                     RemotePaymentProcessorHealth health) {
+        this.healthMonitor.peerChecked(processor, health);
+    }
+}
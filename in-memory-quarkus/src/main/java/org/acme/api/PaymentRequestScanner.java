@@ -0,0 +1,151 @@
+package org.acme.api;
+
+import io.vertx.core.buffer.Buffer;
+import org.acme.domain.NewPaymentRequest;
+
+/**
+ * Reads a {@code {"correlationId": "...", "amount": 19.90}} body straight from the request bytes, in any key
+ * order and with any whitespace, without building a token stream or a {@code BigDecimal}.
+ * <p>
+ * It only accepts the shape the clients actually send: exactly those two keys, an unescaped string id and a
+ * plain non-negative amount with at most two decimal places. Anything else yields {@code null} so the body can
+ * go through {@link PaymentsResource} and Jackson instead, which also produces the error responses.
+ */
+final class PaymentRequestScanner {
+
+    private static final byte[] CORRELATION_ID = "correlationId".getBytes();
+    private static final byte[] AMOUNT = "amount".getBytes();
+    // the largest integer part whose cents, fraction included, still fit in a long
+    private static final long MAX_UNITS = (Long.MAX_VALUE - 99) / 100;
+
+    private PaymentRequestScanner() {
+    }
+
+    static NewPaymentRequest scan(Buffer body) {
+        int length = body.length();
+        int i = skipWhitespace(body, 0, length);
+        if (i >= length || body.getByte(i) != '{') {
+            return null;
+        }
+        String correlationId = null;
+        long amountInCents = -1;
+        i++;
+        while (true) {
+            i = skipWhitespace(body, i, length);
+            if (i >= length || body.getByte(i) != '"') {
+                return null;
+            }
+            int keyStart = i + 1;
+            int keyEnd = indexOfQuote(body, keyStart, length);
+            if (keyEnd < 0) {
+                return null;
+            }
+            i = skipWhitespace(body, keyEnd + 1, length);
+            if (i >= length || body.getByte(i) != ':') {
+                return null;
+            }
+            i = skipWhitespace(body, i + 1, length);
+            if (correlationId == null && matches(body, keyStart, keyEnd, CORRELATION_ID)) {
+                if (i >= length || body.getByte(i) != '"') {
+                    return null;
+                }
+                int valueEnd = indexOfQuote(body, i + 1, length);
+                if (valueEnd < 0) {
+                    return null;
+                }
+                correlationId = body.getString(i + 1, valueEnd);
+                i = valueEnd + 1;
+            } else if (amountInCents < 0 && matches(body, keyStart, keyEnd, AMOUNT)) {
+                if (i + 1 < length && body.getByte(i) == '0' && isDigit(body.getByte(i + 1))) {
+                    // JSON has no leading zeros
+                    return null;
+                }
+                long units = 0;
+                int integerDigits = 0;
+                while (i < length && isDigit(body.getByte(i))) {
+                    units = units * 10 + (body.getByte(i++) - '0');
+                    if (units > MAX_UNITS) {
+                        return null;
+                    }
+                    integerDigits++;
+                }
+                long fraction = 0;
+                int fractionDigits = 0;
+                if (i < length && body.getByte(i) == '.') {
+                    i++;
+                    while (i < length && isDigit(body.getByte(i))) {
+                        if (++fractionDigits > 2) {
+                            return null;
+                        }
+                        fraction = fraction * 10 + (body.getByte(i++) - '0');
+                    }
+                    if (fractionDigits == 0) {
+                        return null;
+                    }
+                }
+                if (integerDigits == 0) {
+                    return null;
+                }
+                amountInCents = units * 100 + (fractionDigits == 1 ? fraction * 10 : fraction);
+            } else {
+                return null;
+            }
+            i = skipWhitespace(body, i, length);
+            if (i >= length) {
+                return null;
+            }
+            byte separator = body.getByte(i++);
+            if (separator == '}') {
+                break;
+            }
+            if (separator != ',') {
+                return null;
+            }
+        }
+        if (correlationId == null || amountInCents < 0 || skipWhitespace(body, i, length) != length) {
+            return null;
+        }
+        return new NewPaymentRequest(correlationId, amountInCents);
+    }
+
+    private static int skipWhitespace(Buffer body, int i, int length) {
+        while (i < length) {
+            byte b = body.getByte(i);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int indexOfQuote(Buffer body, int i, int length) {
+        for (; i < length; i++) {
+            byte b = body.getByte(i);
+            if (b == '"') {
+                return i;
+            }
+            if (b == '\\' || b < 0x20) {
+                // escapes are left to Jackson
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(Buffer body, int start, int end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (body.getByte(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
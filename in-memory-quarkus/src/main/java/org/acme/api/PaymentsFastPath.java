@@ -0,0 +1,64 @@
+package org.acme.api;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.BodyHandler;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.acme.domain.NewPaymentRequest;
+import org.acme.domain.PaymentWorker;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Serves {@code POST /payments} on the event loop ahead of {@link PaymentsResource}: the body is scanned in
+ * place by {@link PaymentRequestScanner} and handed to the {@link PaymentWorker}, skipping the JAX-RS dispatch,
+ * Jackson and the hop to a virtual thread. Bodies the scanner does not accept fall through to the resource,
+ * which reads the body this route already buffered, and so do payments the in-memory queue has no room for, as
+ * the overflow behind it writes to files that must not be touched from the event loop.
+ */
+@ApplicationScoped
+public class PaymentsFastPath {
+
+    private static final int CREATED = 201;
+
+    private final PaymentWorker paymentWorker;
+    private final boolean enabled;
+    private final long bodyLimit;
+
+    @Inject
+    public PaymentsFastPath(PaymentWorker paymentWorker,
+                            @ConfigProperty(name = "payments.fast-path.enabled", defaultValue = "false")
+                            boolean enabled,
+                            @ConfigProperty(name = "payments.fast-path.body-limit", defaultValue = "1024")
+                            long bodyLimit) {
+        this.paymentWorker = paymentWorker;
+        this.enabled = enabled;
+        this.bodyLimit = bodyLimit;
+    }
+
+    void register(@Observes Router router) {
+        if (!enabled) {
+            return;
+        }
+        router.post("/payments")
+                .order(-2)
+                .handler(BodyHandler.create(false).setBodyLimit(bodyLimit));
+        router.post("/payments")
+                .order(-1)
+                .handler(this::handle);
+    }
+
+    private void handle(RoutingContext context) {
+        Buffer body = context.body().buffer();
+        NewPaymentRequest request = body == null ? null : PaymentRequestScanner.scan(body);
+        if (request == null || !paymentWorker.acceptInMemory(request)) {
+            context.next();
+            return;
+        }
+        context.response()
+                .setStatusCode(CREATED)
+                .end();
+    }
+}
@@ -1,6 +1,7 @@
 package org.acme.api;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.POST;
@@ -8,11 +9,10 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.acme.domain.Cents;
 import org.acme.domain.NewPaymentRequest;
 import org.acme.domain.PaymentWorker;
 
-import java.math.BigDecimal;
-
 @Path("/payments")
 @Consumes(MediaType.APPLICATION_JSON)
 @Produces(MediaType.APPLICATION_JSON)
@@ -26,10 +26,11 @@ public class PaymentsResource {
     }
 
     record PaymentRequest(String correlationId,
-                          @JsonFormat(shape = JsonFormat.Shape.NUMBER)
-                          BigDecimal amount) {
+                          @JsonProperty("amount")
+                          @JsonDeserialize(using = Cents.Deserializer.class)
+                          long amountInCents) {
         public NewPaymentRequest toNewPayment() {
-            return new NewPaymentRequest(correlationId(), amount());
+            return new NewPaymentRequest(correlationId(), amountInCents());
         }
     }
 
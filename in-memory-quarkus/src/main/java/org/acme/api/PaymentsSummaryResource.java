@@ -43,6 +43,14 @@ public class PaymentsSummaryResource {
         this.paymentService.purgeInternalPayments();
     }
 
+    @POST
+    @Path("/internal/summary-deltas")
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    @Produces(MediaType.TEXT_PLAIN)
+    public long applySummaryDeltas(byte[] batch) {
+        return this.paymentService.applyPeerSummaryDeltas(batch);
+    }
+
     @GET
     @Path("/payments-summary")
     public Response get(@QueryParam("from") @DefaultValue("") String fromStr,
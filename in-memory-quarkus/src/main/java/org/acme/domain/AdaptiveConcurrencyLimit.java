@@ -0,0 +1,105 @@
+package org.acme.domain;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD limit on the number of payments sent to the processors at the same time.
+ * <p>
+ * While calls succeed close to the lowest latency seen in the recent window, the limit grows by one every
+ * {@code limit} completions, as long as it is actually being used; a failed call or one slower than
+ * {@code latencyTolerance} times that latency shrinks it by {@code backoffRatio}.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final int MIN_LATENCY_WINDOW = 1000;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private double limit;
+    private int inFlight;
+    private long minLatencyNanos = Long.MAX_VALUE;
+    private long windowMinLatencyNanos = Long.MAX_VALUE;
+    private int windowSamples;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("limits must satisfy 0 < minLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be in (0, 1)");
+        }
+        if (latencyTolerance < 1) {
+            throw new IllegalArgumentException("latencyTolerance must be at least 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    public void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                available.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long latencyNanos, boolean success) {
+        lock.lock();
+        try {
+            boolean used = inFlight * 2 >= (int) limit;
+            inFlight--;
+            int before = (int) limit;
+            if (success) {
+                windowMinLatencyNanos = Math.min(windowMinLatencyNanos, latencyNanos);
+                minLatencyNanos = Math.min(minLatencyNanos, latencyNanos);
+                if (++windowSamples >= MIN_LATENCY_WINDOW) {
+                    // forget old minimums so the baseline follows the processors when they get slower for good
+                    minLatencyNanos = windowMinLatencyNanos;
+                    windowMinLatencyNanos = Long.MAX_VALUE;
+                    windowSamples = 0;
+                }
+            }
+            if (!success || latencyNanos > minLatencyNanos * latencyTolerance) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (used) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            int grown = Math.max(1, (int) limit - before + 1);
+            for (int i = 0; i < grown; i++) {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.acme.domain;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers: amounts travel as {@code long} cents and are rounded to two decimal places with
+ * {@link RoundingMode#HALF_DOWN}, the rounding the summaries have always applied. Each amount is rounded once
+ * when it is accepted, so a summary is the exact sum of the rounded amounts, which are also the ones sent to the
+ * processors, rather than the rounded sum of the amounts as received.
+ */
+public final class Cents {
+
+    private Cents() {
+    }
+
+    public static long of(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_DOWN).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public static long parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    public static long parse(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long units = 0;
+        int integerDigits = 0;
+        while (i < end && isDigit(text.charAt(i))) {
+            units = Math.addExact(Math.multiplyExact(units, 10), text.charAt(i) - '0');
+            integerDigits++;
+            i++;
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        if (i < end && text.charAt(i) == '.') {
+            i++;
+            int firstDropped = -1;
+            boolean nonZeroAfterFirstDropped = false;
+            while (i < end && isDigit(text.charAt(i))) {
+                int digit = text.charAt(i) - '0';
+                if (fractionDigits < 2) {
+                    fraction = fraction * 10 + digit;
+                } else if (firstDropped < 0) {
+                    firstDropped = digit;
+                } else if (digit != 0) {
+                    nonZeroAfterFirstDropped = true;
+                }
+                fractionDigits++;
+                i++;
+            }
+            roundUp = firstDropped > 5 || (firstDropped == 5 && nonZeroAfterFirstDropped);
+        }
+        if (i < end || (integerDigits == 0 && fractionDigits == 0)) {
+            // exponents and anything unusual take the exact, slower path
+            return of(new BigDecimal(text.subSequence(start, end).toString()));
+        }
+        for (int scale = Math.min(fractionDigits, 2); scale < 2; scale++) {
+            fraction *= 10;
+        }
+        long cents = Math.addExact(Math.multiplyExact(units, 100), fraction + (roundUp ? 1 : 0));
+        return negative ? -cents : cents;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(24), cents).toString();
+    }
+
+    public static StringBuilder appendTo(StringBuilder builder, long cents) {
+        long abs = Math.abs(cents);
+        if (cents < 0) {
+            builder.append('-');
+        }
+        long fraction = abs % 100;
+        return builder.append(abs / 100)
+                .append('.')
+                .append((char) ('0' + fraction / 10))
+                .append((char) ('0' + fraction % 10));
+    }
+
+    public static class Serializer extends StdSerializer<Long> {
+
+        public Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(format(value));
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Long> {
+
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException, JacksonException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_STRING) {
+                try {
+                    return parse(parser.getText().trim());
+                } catch (NumberFormatException | ArithmeticException e) {
+                    return (Long) context.handleWeirdStringValue(Long.class, parser.getText(), "not a valid amount");
+                }
+            }
+            return (Long) context.handleUnexpectedToken(Long.class, parser);
+        }
+    }
+}
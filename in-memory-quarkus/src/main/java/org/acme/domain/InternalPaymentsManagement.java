@@ -1,10 +1,15 @@
 package org.acme.domain;
 
+import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 @RegisterRestClient(configKey = "internal-payments-management")
@@ -16,6 +21,17 @@ public interface InternalPaymentsManagement {
             @QueryParam("from") @DefaultValue("") String fromStr,
             @QueryParam("to") @DefaultValue("") String toStr);
 
+    @Path("/internal/summary-deltas")
+    @POST
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    @Produces(MediaType.TEXT_PLAIN)
+    long pushSummaryDeltas(byte[] batch);
+
+    @Path("/internal/processor-health/{processor}")
+    @PUT
+    @Consumes(MediaType.APPLICATION_JSON)
+    void shareProcessorHealth(@PathParam("processor") RemotePaymentName processor, RemotePaymentProcessorHealth health);
+
     @Path("/internal/purge-payments")
     @POST
     void purgeInternalPayments();
@@ -0,0 +1,114 @@
+package org.acme.domain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response-time statistics of a single payment processor: an EWMA of the latency and of the error rate, plus a
+ * log-scaled histogram whose counts halve every {@code halfLifeNanos}, so percentiles follow the recent
+ * behaviour of the processor instead of the whole run.
+ */
+public final class LatencyTracker {
+
+    // bucket i holds latencies up to MIN_MILLIS * GROWTH^i, covering 1ms to ~80s
+    private static final double MIN_MILLIS = 1.0;
+    private static final double GROWTH = 1.25;
+    private static final int BUCKETS = 52;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+
+    private final double alpha;
+    private final long halfLifeNanos;
+    private final double[] buckets = new double[BUCKETS];
+    private double total;
+    private double ewmaMillis = Double.NaN;
+    private double errorRate;
+    private long lastDecayNanos;
+
+    public LatencyTracker(double alpha, long halfLifeNanos) {
+        this(alpha, halfLifeNanos, System.nanoTime());
+    }
+
+    LatencyTracker(double alpha, long halfLifeNanos, long nowNanos) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        if (halfLifeNanos <= 0) {
+            throw new IllegalArgumentException("halfLifeNanos must be positive");
+        }
+        this.alpha = alpha;
+        this.halfLifeNanos = halfLifeNanos;
+        this.lastDecayNanos = nowNanos;
+    }
+
+    public synchronized void record(long latencyNanos, boolean success) {
+        record(latencyNanos, success, System.nanoTime());
+    }
+
+    synchronized void record(long latencyNanos, boolean success, long nowNanos) {
+        decay(nowNanos);
+        double millis = (double) latencyNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        ewmaMillis = Double.isNaN(ewmaMillis) ? millis : ewmaMillis + alpha * (millis - ewmaMillis);
+        errorRate += alpha * ((success ? 0.0 : 1.0) - errorRate);
+        buckets[bucketOf(millis)]++;
+        total++;
+    }
+
+    private void decay(long nowNanos) {
+        long elapsed = nowNanos - lastDecayNanos;
+        if (elapsed < halfLifeNanos / 8) {
+            return;
+        }
+        double factor = Math.pow(0.5, (double) elapsed / halfLifeNanos);
+        total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] *= factor;
+            total += buckets[i];
+        }
+        lastDecayNanos = nowNanos;
+    }
+
+    private static int bucketOf(double millis) {
+        if (millis <= MIN_MILLIS) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, (int) Math.ceil(Math.log(millis / MIN_MILLIS) / LOG_GROWTH));
+    }
+
+    private static double upperBoundOf(int bucket) {
+        return MIN_MILLIS * Math.pow(GROWTH, bucket);
+    }
+
+    /**
+     * The EWMA of the latency in milliseconds, or {@code NaN} before the first sample.
+     */
+    public synchronized double ewmaMillis() {
+        return ewmaMillis;
+    }
+
+    public synchronized double errorRate() {
+        return errorRate;
+    }
+
+    /**
+     * The upper bound of the bucket holding the given quantile of the recent latencies in milliseconds, or
+     * {@code NaN} once the samples have decayed away.
+     */
+    public synchronized double quantileMillis(double quantile) {
+        return quantileMillis(quantile, System.nanoTime());
+    }
+
+    synchronized double quantileMillis(double quantile, long nowNanos) {
+        decay(nowNanos);
+        if (total < 1.0) {
+            return Double.NaN;
+        }
+        double rank = quantile * total;
+        double seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKETS - 1);
+    }
+}
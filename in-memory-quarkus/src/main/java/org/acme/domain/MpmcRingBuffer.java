@@ -0,0 +1,217 @@
+package org.acme.domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded multi-producer multi-consumer queue over a preallocated power-of-two ring, after Dmitry Vyukov's
+ * design: every slot carries a sequence number that tells producers and consumers whether it is free for the
+ * current lap, so {@link #offer} and {@link #poll} each take a single CAS on the tail or the head and allocate
+ * nothing.
+ * <p>
+ * {@link #take} spins briefly and then parks on a {@link ReentrantLock} condition, which unmounts virtual threads
+ * instead of pinning their carrier; producers only take that lock when a consumer is actually parked.
+ */
+public final class MpmcRingBuffer<E> {
+
+    private static final int SPINS = 64;
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle WAITERS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(MpmcRingBuffer.class, "head", long.class);
+            TAIL = lookup.findVarHandle(MpmcRingBuffer.class, "tail", long.class);
+            WAITERS = lookup.findVarHandle(MpmcRingBuffer.class, "waiters", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long[] sequences;
+    private final Object[] elements;
+    private final int mask;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    // the padding keeps the producers' tail and the consumers' head on different cache lines
+    @SuppressWarnings("unused")
+    private long p01, p02, p03, p04, p05, p06, p07;
+    private volatile long tail;
+    @SuppressWarnings("unused")
+    private long p11, p12, p13, p14, p15, p16, p17;
+    private volatile long head;
+    @SuppressWarnings("unused")
+    private long p21, p22, p23, p24, p25, p26, p27;
+    private volatile int waiters;
+
+    public MpmcRingBuffer(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 2 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.sequences = new long[size];
+        this.elements = new Object[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences[i] = i;
+        }
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        long position = tail;
+        while (true) {
+            int index = (int) (position & mask);
+            long sequence = (long) SEQUENCE.getVolatile(sequences, index);
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (TAIL.compareAndSet(this, position, position + 1)) {
+                    ELEMENT.set(elements, index, element);
+                    // a volatile publish orders it before the read of the waiters below
+                    SEQUENCE.setVolatile(sequences, index, position + 1);
+                    if (waiters > 0) {
+                        signalNotEmpty();
+                    }
+                    return true;
+                }
+                position = tail;
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = head;
+        while (true) {
+            int index = (int) (position & mask);
+            long sequence = (long) SEQUENCE.getVolatile(sequences, index);
+            long difference = sequence - (position + 1);
+            if (difference == 0) {
+                if (HEAD.compareAndSet(this, position, position + 1)) {
+                    E element = (E) ELEMENT.get(elements, index);
+                    ELEMENT.set(elements, index, null);
+                    SEQUENCE.setRelease(sequences, index, position + mask + 1);
+                    return element;
+                }
+                position = head;
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head;
+            }
+        }
+    }
+
+    public E take() throws InterruptedException {
+        E element;
+        for (int i = 0; i < SPINS; i++) {
+            if ((element = poll()) != null) {
+                return element;
+            }
+            Thread.onSpinWait();
+        }
+        lock.lockInterruptibly();
+        try {
+            WAITERS.getAndAdd(this, 1);
+            try {
+                while ((element = poll()) == null) {
+                    notEmpty.await();
+                }
+            } finally {
+                WAITERS.getAndAdd(this, -1);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (waiters > 0 && !isEmpty()) {
+            // pass the wake-up on, in case several producers signalled only this consumer
+            signalNotEmpty();
+        }
+        return element;
+    }
+
+    /**
+     * Like {@link #take} but gives up and returns {@code null} once {@code timeout} elapsed.
+     */
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E element;
+        for (int i = 0; i < SPINS; i++) {
+            if ((element = poll()) != null) {
+                return element;
+            }
+            Thread.onSpinWait();
+        }
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            WAITERS.getAndAdd(this, 1);
+            try {
+                while ((element = poll()) == null) {
+                    if (nanos <= 0) {
+                        return null;
+                    }
+                    nanos = notEmpty.awaitNanos(nanos);
+                }
+            } finally {
+                WAITERS.getAndAdd(this, -1);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (waiters > 0 && !isEmpty()) {
+            signalNotEmpty();
+        }
+        return element;
+    }
+
+    private void signalNotEmpty() {
+        lock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        while (true) {
+            long before = head;
+            long currentTail = tail;
+            if (head == before) {
+                return (int) Math.max(0, Math.min(currentTail - before, elements.length));
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int remainingCapacity() {
+        return elements.length - size();
+    }
+
+    public void clear() {
+        while (poll() != null) {
+            // drop the element
+        }
+    }
+}
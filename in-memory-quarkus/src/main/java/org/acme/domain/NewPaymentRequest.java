@@ -1,12 +1,24 @@
 package org.acme.domain;
 
-import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 
-public record NewPaymentRequest(String correlationId, BigDecimal amount) {
+public record NewPaymentRequest(String correlationId, long amountInCents, int attempts, long receivedAtNanos) {
+
+    public NewPaymentRequest(String correlationId, long amountInCents) {
+        this(correlationId, amountInCents, 0, System.nanoTime());
+    }
 
     public RemotePaymentRequest toNewPayment() {
-        return new RemotePaymentRequest(correlationId, amount, Instant.now());
+        return new RemotePaymentRequest(correlationId, amountInCents, Instant.now());
+    }
+
+    public NewPaymentRequest retried() {
+        return new NewPaymentRequest(correlationId, amountInCents, attempts + 1, receivedAtNanos);
+    }
+
+    public Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - receivedAtNanos);
     }
 
-}
\ No newline at end of file
+}
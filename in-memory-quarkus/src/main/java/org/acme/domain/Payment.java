@@ -5,18 +5,29 @@ import java.time.Instant;
 
 public record Payment(String correlationId,
                       RemotePaymentName processedBy,
-                      BigDecimal amount,
+                      long amountInCents,
                       Instant createAt) {
 
 
     public static Payment of(String correlationId,
                              RemotePaymentName processedBy,
-                             BigDecimal amount,
+                             long amountInCents,
                              Instant createAt) {
         return new Payment(correlationId,
                 processedBy,
-                amount,
+                amountInCents,
                 createAt
         );
     }
+
+    public static Payment of(String correlationId,
+                             RemotePaymentName processedBy,
+                             BigDecimal amount,
+                             Instant createAt) {
+        return of(correlationId, processedBy, Cents.of(amount), createAt);
+    }
+
+    public BigDecimal amount() {
+        return Cents.toBigDecimal(amountInCents);
+    }
 }
@@ -0,0 +1,22 @@
+package org.acme.domain;
+
+/**
+ * Second tier of the worker intake, taking the payments that arrive while the in-memory queue is full.
+ */
+public interface PaymentOverflow {
+
+    boolean offer(NewPaymentRequest request);
+
+    /**
+     * The oldest spilled payment, or {@code null} when there is none ready.
+     */
+    NewPaymentRequest poll();
+
+    long size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    void clear();
+}
@@ -3,9 +3,7 @@ package org.acme.domain;
 import io.vertx.core.impl.NoStackTraceTimeoutException;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.faulttolerance.Fallback;
-import org.eclipse.microprofile.faulttolerance.Retry;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
+import jakarta.inject.Named;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,33 +13,55 @@ import java.util.Optional;
 public class PaymentProcessor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PaymentProcessor.class);
-    private final DefaultPaymentProcessor defaultPaymentProcessor;
-    private final FallbackPaymentProcessor fallbackPaymentProcessor;
+    private final RemotePaymentProcessorExecutor defaultPaymentProcessor;
+    private final RemotePaymentProcessorExecutor fallbackPaymentProcessor;
+    private final PaymentRouter router;
 
     @Inject
     public PaymentProcessor(
-            @RestClient
-            DefaultPaymentProcessor defaultPaymentProcessor,
-            @RestClient
-            FallbackPaymentProcessor fallbackPaymentProcessor) {
+            @Named(RemotePaymentProcessorExecutor.DEFAULT_EXECUTOR)
+            RemotePaymentProcessorExecutor defaultPaymentProcessor,
+            @Named(RemotePaymentProcessorExecutor.FALLBACK_EXECUTOR)
+            RemotePaymentProcessorExecutor fallbackPaymentProcessor,
+            PaymentRouter router) {
         this.defaultPaymentProcessor = defaultPaymentProcessor;
         this.fallbackPaymentProcessor = fallbackPaymentProcessor;
+        this.router = router;
     }
 
-    @Retry(maxRetries = 16)
-    @Fallback(fallbackMethod = "fallbackSendPayment")
+    /**
+     * Makes a single attempt on the processor picked by the router; an empty result means the payment should be
+     * retried later.
+     */
     public Optional<Payment> sendPayment(NewPaymentRequest newPaymentRequest) {
-        RemotePaymentRequest request = newPaymentRequest.toNewPayment();
-        defaultPaymentProcessor.processPayment(request);
-        return Optional.of(RemotePaymentName.DEFAULT.toPayment(request));
+        return router.route() == RemotePaymentName.FALLBACK
+                ? fallbackSendPayment(newPaymentRequest)
+                : defaultSendPayment(newPaymentRequest);
     }
 
-    public Optional<Payment> fallbackSendPayment(NewPaymentRequest newPaymentRequest) {
+    private Optional<Payment> defaultSendPayment(NewPaymentRequest newPaymentRequest) {
         final RemotePaymentRequest request = newPaymentRequest.toNewPayment();
+        long start = System.nanoTime();
+        try {
+            defaultPaymentProcessor.processPayment(request);
+            router.record(RemotePaymentName.DEFAULT, System.nanoTime() - start, true);
+            return Optional.of(RemotePaymentName.DEFAULT.toPayment(request));
+        } catch (Exception ex) {
+            router.record(RemotePaymentName.DEFAULT, System.nanoTime() - start, false);
+            LOGGER.debug("Error sending payment to the default processor: {}", getRootCause(ex).getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<Payment> fallbackSendPayment(NewPaymentRequest newPaymentRequest) {
+        final RemotePaymentRequest request = newPaymentRequest.toNewPayment();
+        long start = System.nanoTime();
         try {
             fallbackPaymentProcessor.processPayment(request);
+            router.record(RemotePaymentName.FALLBACK, System.nanoTime() - start, true);
             return Optional.of(RemotePaymentName.FALLBACK.toPayment(request));
         } catch (Exception ex) {
+            router.record(RemotePaymentName.FALLBACK, System.nanoTime() - start, false);
             Throwable throwable = getRootCause(ex);
             if (throwable instanceof NoStackTraceTimeoutException timeoutException) {
                 LOGGER.warn("ProcessingException occurred while sending payment: {}", timeoutException.getMessage(), timeoutException);
@@ -0,0 +1,123 @@
+package org.acme.domain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the processor for each payment from a cost/latency score:
+ * <pre>
+ * score = fee-weight * fee + latency-weight * latency (s) + error-weight * error rate
+ * </pre>
+ * where the latency is the worst of the EWMA, the recent {@code payment-router.quantile} and the processor's
+ * advertised {@code minResponseTime}, and the error rate is an EWMA of the failed calls. Processors known to be
+ * failing are only picked when both are.
+ */
+@ApplicationScoped
+public class PaymentRouter {
+
+    private final RemotePaymentProcessorHealthMonitor healthMonitor;
+    private final double feeWeight;
+    private final double latencyWeight;
+    private final double errorWeight;
+    private final double quantile;
+    private final Map<RemotePaymentName, Double> fees = new EnumMap<>(RemotePaymentName.class);
+    private final Map<RemotePaymentName, LatencyTracker> trackers = new EnumMap<>(RemotePaymentName.class);
+    private final Map<RemotePaymentName, Counter> choices = new EnumMap<>(RemotePaymentName.class);
+    private final Map<RemotePaymentName, Timer> succeededCalls = new EnumMap<>(RemotePaymentName.class);
+    private final Map<RemotePaymentName, Timer> failedCalls = new EnumMap<>(RemotePaymentName.class);
+
+    @Inject
+    public PaymentRouter(RemotePaymentProcessorHealthMonitor healthMonitor,
+                         MeterRegistry registry,
+                         @ConfigProperty(name = "payment-router.default.fee", defaultValue = "0.05")
+                         double defaultFee,
+                         @ConfigProperty(name = "payment-router.fallback.fee", defaultValue = "0.15")
+                         double fallbackFee,
+                         @ConfigProperty(name = "payment-router.fee-weight", defaultValue = "1.0")
+                         double feeWeight,
+                         @ConfigProperty(name = "payment-router.latency-weight", defaultValue = "0.1")
+                         double latencyWeight,
+                         @ConfigProperty(name = "payment-router.error-weight", defaultValue = "1.0")
+                         double errorWeight,
+                         @ConfigProperty(name = "payment-router.quantile", defaultValue = "0.9")
+                         double quantile,
+                         @ConfigProperty(name = "payment-router.ewma-alpha", defaultValue = "0.2")
+                         double alpha,
+                         @ConfigProperty(name = "payment-router.half-life", defaultValue = "5s")
+                         Duration halfLife) {
+        this.healthMonitor = healthMonitor;
+        this.feeWeight = feeWeight;
+        this.latencyWeight = latencyWeight;
+        this.errorWeight = errorWeight;
+        this.quantile = quantile;
+        this.fees.put(RemotePaymentName.DEFAULT, defaultFee);
+        this.fees.put(RemotePaymentName.FALLBACK, fallbackFee);
+        for (RemotePaymentName name : RemotePaymentName.values()) {
+            trackers.put(name, new LatencyTracker(alpha, halfLife.toNanos()));
+            choices.put(name, Counter.builder("payments.router.choices")
+                    .tag("processor", name.value())
+                    .register(registry));
+            Gauge.builder("payments.router.score", () -> score(name))
+                    .tag("processor", name.value())
+                    .register(registry);
+            Gauge.builder("payments.router.latency.ewma", () -> trackers.get(name).ewmaMillis())
+                    .tag("processor", name.value())
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            succeededCalls.put(name, callTimer(registry, name, "success"));
+            failedCalls.put(name, callTimer(registry, name, "failure"));
+        }
+    }
+
+    public RemotePaymentName route() {
+        boolean defaultFailing = healthMonitor.health(RemotePaymentName.DEFAULT).failing();
+        boolean fallbackFailing = healthMonitor.health(RemotePaymentName.FALLBACK).failing();
+        RemotePaymentName chosen;
+        if (defaultFailing != fallbackFailing) {
+            chosen = defaultFailing ? RemotePaymentName.FALLBACK : RemotePaymentName.DEFAULT;
+        } else {
+            chosen = score(RemotePaymentName.FALLBACK) < score(RemotePaymentName.DEFAULT)
+                    ? RemotePaymentName.FALLBACK
+                    : RemotePaymentName.DEFAULT;
+        }
+        choices.get(chosen).increment();
+        return chosen;
+    }
+
+    public double score(RemotePaymentName name) {
+        LatencyTracker tracker = trackers.get(name);
+        double latencyMillis = healthMonitor.health(name).minResponseTime();
+        double errorRate = 0;
+        double recent = tracker.quantileMillis(quantile);
+        // once the samples of a processor decayed away it is scored by its advertised latency again, so it is retried
+        if (!Double.isNaN(recent)) {
+            latencyMillis = Math.max(latencyMillis, Math.max(recent, tracker.ewmaMillis()));
+            errorRate = tracker.errorRate();
+        }
+        return feeWeight * fees.get(name)
+                + latencyWeight * latencyMillis / 1000.0
+                + errorWeight * errorRate;
+    }
+
+    public void record(RemotePaymentName name, long latencyNanos, boolean success) {
+        trackers.get(name).record(latencyNanos, success);
+        (success ? succeededCalls : failedCalls).get(name).record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer callTimer(MeterRegistry registry, RemotePaymentName name, String outcome) {
+        return Timer.builder("payments.processor.call")
+                .tag("processor", name.value())
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
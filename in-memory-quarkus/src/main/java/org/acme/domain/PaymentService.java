@@ -1,29 +1,62 @@
 package org.acme.domain;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 @ApplicationScoped
 public class PaymentService {
 
     private final Payments payments;
     private final PaymentMiddleware paymentMiddleware;
+    private final SummaryReplication summaryReplication;
+    private final boolean replicated;
+    private final Timer summaryLatency;
+    private final Timer internalSummaryLatency;
 
     @Inject
-    public PaymentService(Payments payments, PaymentMiddleware paymentMiddleware) {
+    public PaymentService(Payments payments,
+                          PaymentMiddleware paymentMiddleware,
+                          SummaryReplication summaryReplication,
+                          MeterRegistry registry,
+                          @ConfigProperty(name = "payments.summary.replication.enabled", defaultValue = "true")
+                          boolean replicated) {
         this.payments = payments;
         this.paymentMiddleware = paymentMiddleware;
+        this.summaryReplication = summaryReplication;
+        this.replicated = replicated;
+        this.summaryLatency = Timer.builder("payments.summary.compute")
+                .tag("scope", "total")
+                .register(registry);
+        this.internalSummaryLatency = Timer.builder("payments.summary.compute")
+                .tag("scope", "internal")
+                .register(registry);
     }
 
     public PaymentsSummary getSummary(Instant from, Instant to) {
-        return getInternalSummary(from, to)
-                .add(paymentMiddleware.getSummary(from, to));
+        long start = System.nanoTime();
+        PaymentsSummary summary = getInternalSummary(from, to)
+                .add(replicated
+                        ? summaryReplication.peerSummary(from, to)
+                        : paymentMiddleware.getSummary(from, to));
+        summaryLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return summary;
     }
 
     public PaymentsSummary getInternalSummary(Instant from, Instant to) {
-        return payments.getSummary(from, to);
+        long start = System.nanoTime();
+        PaymentsSummary summary = payments.getSummary(from, to);
+        internalSummaryLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return summary;
+    }
+
+    public long applyPeerSummaryDeltas(byte[] batch) {
+        return summaryReplication.apply(batch);
     }
 
     public void purgePayments() {
@@ -33,6 +66,7 @@ public class PaymentService {
 
     public void purgeInternalPayments() {
         payments.purge();
+        summaryReplication.purge();
     }
 
 }
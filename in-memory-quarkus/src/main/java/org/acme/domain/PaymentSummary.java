@@ -1,45 +1,51 @@
 package org.acme.domain;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.Collection;
 
-public record PaymentSummary(Integer totalRequests,
-                             @JsonFormat(shape = JsonFormat.Shape.NUMBER)
-                             BigDecimal totalAmount) {
-    public static PaymentSummary ZERO = new PaymentSummary(0, BigDecimal.ZERO.setScale(2, RoundingMode.HALF_DOWN));
+public record PaymentSummary(int totalRequests,
+                             @JsonProperty("totalAmount")
+                             @JsonSerialize(using = Cents.Serializer.class)
+                             @JsonDeserialize(using = Cents.Deserializer.class)
+                             long totalAmountInCents) {
+
+    public static PaymentSummary ZERO = new PaymentSummary(0, 0L);
 
     public static PaymentSummary of(Integer totalRequests, BigDecimal totalAmount) {
-        return new PaymentSummary(totalRequests, totalAmount.setScale(2, RoundingMode.HALF_DOWN));
+        return ofCents(totalRequests, Cents.of(totalAmount));
+    }
+
+    public static PaymentSummary ofCents(int totalRequests, long totalAmountInCents) {
+        return new PaymentSummary(totalRequests, totalAmountInCents);
+    }
+
+    public BigDecimal totalAmount() {
+        return Cents.toBigDecimal(totalAmountInCents);
     }
 
     public PaymentSummary increment(Payment payment) {
         return new PaymentSummary(
                 totalRequests + 1,
-                totalAmount.add(payment.amount()).setScale(2, RoundingMode.HALF_DOWN)
+                totalAmountInCents + payment.amountInCents()
         );
     }
 
     public PaymentSummary increment(Collection<Payment> payments) {
-//        return payments
-//                .stream()
-//                .parallel()
-//                .reduce(ZERO, PaymentSummary::increment, PaymentSummary::add);
-
-        return PaymentSummary.of(payments.size(),
-                payments.stream()
-                        .parallel()
-                        .map(Payment::amount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add)
-                        .setScale(2, RoundingMode.HALF_DOWN));
+        long cents = totalAmountInCents;
+        for (Payment payment : payments) {
+            cents += payment.amountInCents();
+        }
+        return new PaymentSummary(totalRequests + payments.size(), cents);
     }
 
     public PaymentSummary add(PaymentSummary other) {
         return new PaymentSummary(
                 this.totalRequests + other.totalRequests,
-                this.totalAmount.add(other.totalAmount).setScale(2, RoundingMode.HALF_DOWN)
+                this.totalAmountInCents + other.totalAmountInCents
         );
     }
-}
\ No newline at end of file
+}
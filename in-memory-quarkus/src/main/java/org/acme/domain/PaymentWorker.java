@@ -1,74 +1,242 @@
 package org.acme.domain;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.quarkus.runtime.Startup;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.stream.IntStream;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 @ApplicationScoped
 public class PaymentWorker {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PaymentWorker.class);
+    private static final long MIN_UNCOMMITTED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
 
     private final Payments payments;
+    private final SummaryReplication summaryReplication;
     private final PaymentProcessor paymentProcessor;
-    private final LinkedBlockingQueue<NewPaymentRequest> queue;
-    private final int workers;
+    private final MpmcRingBuffer<NewPaymentRequest> queue;
+    private final PaymentOverflow overflow;
+    private final long overflowPollNanos;
+    private final AdaptiveConcurrencyLimit limit;
+    private final RetryPolicy retryPolicy;
+    private final HashedTimingWheel<NewPaymentRequest> retries;
+    private final Counter intake;
+    private final Counter rejected;
+    private final Counter retried;
+    private final Counter abandoned;
+    private final Timer queueWait;
+    private final Timer storeLatency;
 
     @Inject
     public PaymentWorker(Payments payments,
+                         SummaryReplication summaryReplication,
                          PaymentProcessor paymentProcessor,
+                         PaymentOverflow overflow,
+                         MeterRegistry registry,
                          @ConfigProperty(name = "worker.queue-buffer", defaultValue = "10000")
                          int queueBuffer,
+                         @ConfigProperty(name = "worker.spill.poll-interval", defaultValue = "10ms")
+                         Duration overflowPollInterval,
                          @ConfigProperty(name = "worker.size", defaultValue = "10")
-                         int workers
+                         int workers,
+                         @ConfigProperty(name = "worker.limit.min", defaultValue = "1")
+                         int minLimit,
+                         @ConfigProperty(name = "worker.limit.max", defaultValue = "256")
+                         int maxLimit,
+                         @ConfigProperty(name = "worker.limit.backoff-ratio", defaultValue = "0.9")
+                         double backoffRatio,
+                         @ConfigProperty(name = "worker.limit.latency-tolerance", defaultValue = "2.0")
+                         double latencyTolerance,
+                         @ConfigProperty(name = "retry.base-delay", defaultValue = "10ms")
+                         Duration retryBaseDelay,
+                         @ConfigProperty(name = "retry.max-delay", defaultValue = "1s")
+                         Duration retryMaxDelay,
+                         @ConfigProperty(name = "retry.max-attempts", defaultValue = "64")
+                         int retryMaxAttempts,
+                         @ConfigProperty(name = "retry.budget", defaultValue = "60s")
+                         Duration retryBudget,
+                         @ConfigProperty(name = "retry.wheel.tick", defaultValue = "10ms")
+                         Duration retryWheelTick,
+                         @ConfigProperty(name = "retry.wheel.size", defaultValue = "512")
+                         int retryWheelSize
     ) {
         this.payments = payments;
+        this.summaryReplication = summaryReplication;
         this.paymentProcessor = paymentProcessor;
-        this.queue = new LinkedBlockingQueue<>(queueBuffer);
-        this.workers = workers;
+        this.queue = new MpmcRingBuffer<>(queueBuffer);
+        this.overflow = overflow;
+        this.overflowPollNanos = overflowPollInterval.toNanos();
+        this.limit = new AdaptiveConcurrencyLimit(workers, minLimit, maxLimit, backoffRatio, latencyTolerance);
+        this.retryPolicy = new RetryPolicy(retryBaseDelay, retryMaxDelay, retryMaxAttempts, retryBudget);
+        this.retries = new HashedTimingWheel<>("payment-retries", retryWheelTick, retryWheelSize, this::requeue);
+        Gauge.builder("payments.worker.limit", limit::limit).register(registry);
+        Gauge.builder("payments.worker.in-flight", limit::inFlight).register(registry);
+        Gauge.builder("payments.worker.queue.depth", queue::size).register(registry);
+        Gauge.builder("payments.worker.queue.remaining", queue::remainingCapacity).register(registry);
+        Gauge.builder("payments.worker.spill.depth", overflow::size).register(registry);
+        Gauge.builder("payments.worker.retries.pending", retries::pending).register(registry);
+        this.intake = Counter.builder("payments.worker.intake").register(registry);
+        this.rejected = Counter.builder("payments.worker.rejected").register(registry);
+        this.retried = Counter.builder("payments.worker.retries").register(registry);
+        this.abandoned = Counter.builder("payments.worker.abandoned").register(registry);
+        this.queueWait = Timer.builder("payments.worker.queue.wait")
+                .description("Time from the intake to the first call to a payment processor")
+                .register(registry);
+        this.storeLatency = Timer.builder("payments.worker.store")
+                .description("Time to add a processed payment to the store and the summary replication")
+                .register(registry);
     }
 
     @Startup
     public void start() {
-        LOGGER.info("Starting worker threads with buffer size: {} and worker count: {}", queue.remainingCapacity(), workers);
-        IntStream.range(0, workers).forEach(i ->
-                Thread.startVirtualThread(this::consumeQueue)
-        );
-        LOGGER.info("Worker threads started successfully.");
+        LOGGER.info("Starting worker dispatcher with buffer size: {} and initial concurrency limit: {}", queue.remainingCapacity(), limit.limit());
+        Thread.startVirtualThread(this::consumeQueue);
+        LOGGER.info("Worker dispatcher started successfully.");
     }
 
     private void consumeQueue() {
         while (true) {
             NewPaymentRequest paymentRequest = takeNewPaymentRequest();
-            processPayment(paymentRequest);
+            acquire();
+            Thread.startVirtualThread(() -> processPayment(paymentRequest));
         }
     }
 
-    private NewPaymentRequest takeNewPaymentRequest() {
+    /**
+     * Drains the in-memory queue first and then the overflow. Producers only append to the overflow while it is
+     * not empty, so payments keep their arrival order and the dispatcher never has to wait for both tiers at once:
+     * it parks on the queue for at most {@code worker.spill.poll-interval} before looking at the overflow again.
+     * When the overflow is not empty but its oldest record is still being written, it parks for a few
+     * microseconds, doubling up to that same interval while the record stays uncommitted.
+     */
+    NewPaymentRequest takeNewPaymentRequest() {
+        long uncommittedParkNanos = MIN_UNCOMMITTED_PARK_NANOS;
         try {
-            return this.queue.take();
+            while (true) {
+                NewPaymentRequest paymentRequest = this.queue.poll();
+                if (paymentRequest == null) {
+                    paymentRequest = this.overflow.poll();
+                }
+                if (paymentRequest != null) {
+                    return paymentRequest;
+                }
+                if (this.overflow.isEmpty()) {
+                    paymentRequest = this.queue.poll(overflowPollNanos, TimeUnit.NANOSECONDS);
+                    if (paymentRequest != null) {
+                        return paymentRequest;
+                    }
+                    uncommittedParkNanos = MIN_UNCOMMITTED_PARK_NANOS;
+                } else {
+                    LockSupport.parkNanos(uncommittedParkNanos);
+                    uncommittedParkNanos = Math.min(uncommittedParkNanos * 2, overflowPollNanos);
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void acquire() {
+        try {
+            limit.acquire();
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
     }
 
     private void processPayment(NewPaymentRequest paymentRequest) {
-        paymentProcessor.sendPayment(paymentRequest)
-                .ifPresentOrElse(payments::add, () -> this.accept(paymentRequest));
+        long start = System.nanoTime();
+        if (paymentRequest.attempts() == 0) {
+            queueWait.record(start - paymentRequest.receivedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+        boolean success = false;
+        try {
+            Optional<Payment> payment = paymentProcessor.sendPayment(paymentRequest);
+            success = payment.isPresent();
+            payment.ifPresentOrElse(this::store, () -> this.retry(paymentRequest));
+        } finally {
+            limit.release(System.nanoTime() - start, success);
+        }
+    }
+
+    private void store(Payment payment) {
+        long start = System.nanoTime();
+        payments.add(payment);
+        summaryReplication.publish(payment);
+        storeLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void retry(NewPaymentRequest paymentRequest) {
+        retryPolicy.nextDelay(paymentRequest.attempts(), paymentRequest.elapsed())
+                .ifPresentOrElse(
+                        delay -> {
+                            retried.increment();
+                            retries.schedule(paymentRequest.retried(), delay);
+                        },
+                        () -> {
+                            abandoned.increment();
+                            LOGGER.warn("Giving up on payment {} after {} attempts in {}",
+                                    paymentRequest.correlationId(), paymentRequest.attempts() + 1, paymentRequest.elapsed());
+                        });
+    }
+
+    private void requeue(NewPaymentRequest paymentRequest) {
+        if (!this.accept(paymentRequest)) {
+            retry(paymentRequest);
+        }
     }
 
     public boolean accept(NewPaymentRequest paymentRequest) {
-        return this.queue.offer(paymentRequest);
+        if (acceptInMemory(paymentRequest)) {
+            return true;
+        }
+        countIntake(paymentRequest);
+        if (this.overflow.offer(paymentRequest)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Queues the request only if the in-memory queue takes it, which never blocks; the overflow may create and map
+     * a segment file, so callers on an event loop leave that to {@link #accept(NewPaymentRequest)} elsewhere.
+     */
+    public boolean acceptInMemory(NewPaymentRequest paymentRequest) {
+        if (this.overflow.isEmpty() && this.queue.offer(paymentRequest)) {
+            countIntake(paymentRequest);
+            return true;
+        }
+        return false;
+    }
+
+    private void countIntake(NewPaymentRequest paymentRequest) {
+        if (paymentRequest.attempts() == 0) {
+            intake.increment();
+        }
     }
 
     public void purge() {
         this.queue.clear();
+        this.overflow.clear();
+        this.retries.clear();
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        this.retries.close();
     }
 
 }
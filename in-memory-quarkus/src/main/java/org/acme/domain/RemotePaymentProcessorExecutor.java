@@ -9,6 +9,12 @@ import jakarta.ws.rs.core.MediaType;
 @Path("/payments")
 public interface RemotePaymentProcessorExecutor {
 
+    /**
+     * Names of the executors {@link PaymentProcessor} sends payments through.
+     */
+    String DEFAULT_EXECUTOR = "default-payment-processor-executor";
+    String FALLBACK_EXECUTOR = "fallback-payment-processor-executor";
+
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
@@ -0,0 +1,163 @@
+package org.acme.domain;
+
+import io.quarkus.runtime.Startup;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Polls the {@code /payments/service-health} endpoint of each payment processor in the background and caches
+ * the last answer, so payments can be steered to a working processor before the first attempt.
+ * <p>
+ * The processors allow one health check every 5 seconds for both instances together. Every answer is shared
+ * with the peer, which then holds off its own check for one and a quarter to one and a half intervals: whichever
+ * instance gets an answer first keeps checking while the other follows its answers, and takes over if they stop
+ * coming. A throttled ({@code 429}) answer keeps the cached state.
+ */
+@ApplicationScoped
+public class RemotePaymentProcessorHealthMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemotePaymentProcessorHealthMonitor.class);
+    private static final Duration MIN_INTERVAL = Duration.ofSeconds(5);
+
+    private final Map<RemotePaymentName, RemotePaymentProcessorHealthCheck> healthChecks;
+    private final InternalPaymentsManagement peer;
+    private final Map<RemotePaymentName, Duration> intervals;
+    private final Map<RemotePaymentName, RemotePaymentProcessorHealth> healthStates = new ConcurrentHashMap<>();
+    private final Map<RemotePaymentName, AtomicLong> nextChecks = new EnumMap<>(RemotePaymentName.class);
+
+    @Inject
+    public RemotePaymentProcessorHealthMonitor(
+            @RestClient
+            DefaultPaymentProcessor defaultPaymentProcessor,
+            @RestClient
+            FallbackPaymentProcessor fallbackPaymentProcessor,
+            @RestClient
+            InternalPaymentsManagement peer,
+            @ConfigProperty(name = "default-payment-processor.healthcheck.interval", defaultValue = "5s")
+            Duration defaultInterval,
+            @ConfigProperty(name = "fallback-payment-processor.healthcheck.interval", defaultValue = "5s")
+            Duration fallbackInterval) {
+        this(Map.<RemotePaymentName, RemotePaymentProcessorHealthCheck>of(
+                        RemotePaymentName.DEFAULT, defaultPaymentProcessor,
+                        RemotePaymentName.FALLBACK, fallbackPaymentProcessor),
+                peer,
+                Map.of(
+                        RemotePaymentName.DEFAULT, max(defaultInterval, MIN_INTERVAL),
+                        RemotePaymentName.FALLBACK, max(fallbackInterval, MIN_INTERVAL)));
+    }
+
+    RemotePaymentProcessorHealthMonitor(Map<RemotePaymentName, RemotePaymentProcessorHealthCheck> healthChecks,
+                                        InternalPaymentsManagement peer,
+                                        Map<RemotePaymentName, Duration> intervals) {
+        this.healthChecks = healthChecks;
+        this.peer = peer;
+        this.intervals = intervals;
+        long now = System.nanoTime();
+        // until the first answer arrives both processors are assumed to be up
+        for (RemotePaymentName name : RemotePaymentName.values()) {
+            healthStates.put(name, RemotePaymentProcessorHealth.HEALTH);
+            nextChecks.put(name, new AtomicLong(now));
+        }
+    }
+
+    private static Duration max(Duration interval, Duration min) {
+        return interval.compareTo(min) < 0 ? min : interval;
+    }
+
+    @Startup
+    public void start() {
+        healthChecks.keySet().forEach(name -> Thread.startVirtualThread(() -> poll(name)));
+    }
+
+    private void poll(RemotePaymentName name) {
+        LOGGER.info("Monitoring the {} payment processor health every {}", name.value(), intervals.get(name));
+        AtomicLong nextCheck = nextChecks.get(name);
+        while (!Thread.currentThread().isInterrupted()) {
+            long wait = nextCheck.get() - System.nanoTime();
+            if (wait > 0) {
+                // the peer may postpone the check meanwhile, so the deadline is read again after parking
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            check(name);
+        }
+    }
+
+    void check(RemotePaymentName name) {
+        nextChecks.get(name).set(System.nanoTime() + intervals.get(name).toNanos());
+        fetch(name).ifPresent(health -> {
+            update(name, health);
+            share(name, health);
+        });
+    }
+
+    private Optional<RemotePaymentProcessorHealth> fetch(RemotePaymentName name) {
+        try {
+            RestResponse<RemotePaymentProcessorHealth> response = healthChecks.get(name).healthCheck();
+            if (response.getStatus() == RestResponse.StatusCode.OK && response.getEntity() != null) {
+                return Optional.of(response.getEntity());
+            } else if (response.getStatus() != RestResponse.StatusCode.TOO_MANY_REQUESTS) {
+                return Optional.of(RemotePaymentProcessorHealth.UNHEALTH);
+            }
+        } catch (WebApplicationException e) {
+            if (e.getResponse().getStatus() != RestResponse.StatusCode.TOO_MANY_REQUESTS) {
+                LOGGER.warn("Error checking the {} payment processor health: {}", name.value(), e.getMessage());
+                return Optional.of(RemotePaymentProcessorHealth.UNHEALTH);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Error checking the {} payment processor health: {}", name.value(), e.getMessage());
+            return Optional.of(RemotePaymentProcessorHealth.UNHEALTH);
+        }
+        return Optional.empty();
+    }
+
+    private void share(RemotePaymentName name, RemotePaymentProcessorHealth health) {
+        try {
+            peer.shareProcessorHealth(name, health);
+        } catch (Exception e) {
+            // the peer checks on its own once the shared answers stop coming
+            LOGGER.debug("Could not share the {} payment processor health with the peer: {}", name.value(), e.getMessage());
+        }
+    }
+
+    /**
+     * Takes the answer the peer got and holds off the next check here, which the processor would throttle.
+     */
+    public void peerChecked(RemotePaymentName name, RemotePaymentProcessorHealth health) {
+        update(name, health);
+        long interval = intervals.get(name).toNanos();
+        // the random part keeps two instances that checked at the same time from staying in step
+        long postponed = System.nanoTime() + interval + interval / 4 + ThreadLocalRandom.current().nextLong(interval / 4 + 1);
+        nextChecks.get(name).accumulateAndGet(postponed, Math::max);
+    }
+
+    long nanosUntilNextCheck(RemotePaymentName name) {
+        return nextChecks.get(name).get() - System.nanoTime();
+    }
+
+    private void update(RemotePaymentName name, RemotePaymentProcessorHealth health) {
+        RemotePaymentProcessorHealth previous = healthStates.put(name, health);
+        if (previous == null || previous.failing() != health.failing()) {
+            LOGGER.info("The {} payment processor is now {}", name.value(), health.failing() ? "failing" : "healthy");
+        }
+    }
+
+    public RemotePaymentProcessorHealth health(RemotePaymentName name) {
+        return name.healthState(healthStates::get);
+    }
+}
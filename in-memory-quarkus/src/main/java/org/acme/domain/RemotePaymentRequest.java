@@ -1,14 +1,18 @@
 package org.acme.domain;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Optional;
 
 public record RemotePaymentRequest(String correlationId,
-                                   @JsonFormat(shape = JsonFormat.Shape.NUMBER)
-                                   BigDecimal amount,
+                                   @JsonProperty("amount")
+                                   @JsonSerialize(using = Cents.Serializer.class)
+                                   @JsonDeserialize(using = Cents.Deserializer.class)
+                                   long amountInCents,
                                    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
                                    Instant requestedAt
 ) {
@@ -17,4 +21,4 @@ public record RemotePaymentRequest(String correlationId,
         requestedAt = Optional.ofNullable(requestedAt).orElse(Instant.now());
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package org.acme.domain;
+
+import java.time.Instant;
+
+/**
+ * Keeps the peer instance's summary in local memory: the payments processed here are streamed to the peer, and
+ * the peer's stream is applied to a local replica, so answering {@code /payments-summary} never waits on it.
+ */
+public interface SummaryReplication {
+
+    void publish(Payment payment);
+
+    /**
+     * Applies a batch pushed by the peer and returns the sequence of the last batch applied from it, which tells
+     * the peer what to send next.
+     */
+    long apply(byte[] batch);
+
+    PaymentsSummary peerSummary(Instant from, Instant to);
+
+    void purge();
+}
@@ -0,0 +1,51 @@
+package org.acme.infrastructure;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.domain.NewPaymentRequest;
+import org.acme.domain.PaymentOverflow;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.file.Path;
+
+@ApplicationScoped
+public class DiskPaymentOverflow implements PaymentOverflow {
+
+    private final SpillQueue queue;
+
+    @Inject
+    public DiskPaymentOverflow(@ConfigProperty(name = "worker.spill.directory", defaultValue = "/tmp/payments-spill")
+                               String directory,
+                               @ConfigProperty(name = "worker.spill.segment-records", defaultValue = "65536")
+                               int segmentRecords,
+                               @ConfigProperty(name = "worker.spill.max-records", defaultValue = "4194304")
+                               long maxRecords) {
+        this.queue = new SpillQueue(Path.of(directory), segmentRecords, maxRecords);
+    }
+
+    @Override
+    public boolean offer(NewPaymentRequest request) {
+        return queue.offer(request);
+    }
+
+    @Override
+    public NewPaymentRequest poll() {
+        return queue.poll();
+    }
+
+    @Override
+    public long size() {
+        return queue.size();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        queue.close();
+    }
+}
@@ -1,58 +1,70 @@
 package org.acme.infrastructure;
 
+import io.quarkus.arc.properties.IfBuildProperty;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import org.acme.domain.Payment;
-import org.acme.domain.PaymentSummary;
 import org.acme.domain.Payments;
 import org.acme.domain.PaymentsSummary;
-import org.acme.domain.RemotePaymentName;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.time.Instant;
 import java.util.Map;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import static java.util.Optional.ofNullable;
 
 @ApplicationScoped
+@IfBuildProperty(name = "payments.store", stringValue = "ledger", enableIfMissing = true)
 public class InMemoryPayments implements Payments {
 
-    private final ConcurrentLinkedQueue<Payment> payments = new ConcurrentLinkedQueue<>();
+    private final int cacheEntries;
+    private volatile Store store;
+
+    @Inject
+    public InMemoryPayments(@ConfigProperty(name = "payments.summary.cache.max-entries", defaultValue = "256")
+                            int cacheEntries) {
+        this.cacheEntries = cacheEntries;
+        this.store = Store.empty(cacheEntries);
+    }
+
+    private record Store(PaymentLedger ledger, RunningTotals totals, SummaryCache cache) {
+
+        static Store empty(int cacheEntries) {
+            PaymentLedger ledger = new PaymentLedger();
+            return new Store(ledger, new RunningTotals(), cacheEntries > 0 ? new SummaryCache(ledger, cacheEntries) : null);
+        }
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Instant from, Instant to) {
+        Store current = this.store;
+        if (from == null && to == null) {
+            return current.totals().summary();
+        }
+        long fromEpochMillis = PaymentLedger.fromEpochMillis(from);
+        long toEpochMillis = PaymentLedger.toEpochMillis(to);
+        return current.cache() != null
+                ? current.cache().summarize(fromEpochMillis, toEpochMillis)
+                : current.ledger().summarize(fromEpochMillis, toEpochMillis);
+    }
 
     @Override
     public PaymentsSummary getSummary(Predicate<Payment> filter) {
         return ofNullable(filter)
-                .map(predicate -> {
-                    final Map<RemotePaymentName, PaymentSummary> summaryMap = new HashMap<>();
-                    Map<RemotePaymentName, List<Payment>> collected = currentPayments()
-                            .stream()
-                            .parallel()
-                            .filter(predicate)
-                            .collect(Collectors.groupingBy(p -> p.processedBy()));
-
-                    collected.forEach((name, payments1) -> {
-                        var summary = summaryMap.getOrDefault(name, PaymentSummary.ZERO).increment(payments1);
-                        summaryMap.put(name, summary);
-                    });
-                    return PaymentsSummary.of(summaryMap);
-                })
+                .map(store.ledger()::summarize)
                 .orElseGet(() -> PaymentsSummary.of(Map.of()));
     }
 
-    private List<Payment> currentPayments() {
-        return new ArrayList<>(payments);
-    }
-
     @Override
     public void add(Payment payment) {
-        this.payments.offer(payment);
+        Store current = this.store;
+        current.ledger().append(payment);
+        current.totals().add(payment.processedBy(), payment.amountInCents());
     }
 
     @Override
     public void purge() {
-        this.payments.clear();
+        this.store = Store.empty(cacheEntries);
     }
 }
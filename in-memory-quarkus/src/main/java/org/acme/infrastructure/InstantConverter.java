@@ -61,7 +61,7 @@ public class InstantConverter implements ObjectMapperCustomizer {
 
         @Override
         public Instant deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException, JacksonException {
-            return InstantConverter.parse(jsonParser.readValueAs(String.class));
+            return InstantConverter.parse(jsonParser.getValueAsString());
         }
 
         @Override
@@ -86,6 +86,14 @@ public class InstantConverter implements ObjectMapperCustomizer {
     }
 
     public static Instant parse(String input) {
+        if (input == null) {
+            return null;
+        }
+        Instant instant = IsoInstantParser.parse(input);
+        return instant != null ? instant : parseWithFormatters(input);
+    }
+
+    static Instant parseWithFormatters(String input) {
         return ofNullable(input).flatMap(i -> SERIALIZERS.stream()
                 .map(formatter -> {
                     try {
@@ -0,0 +1,128 @@
+package org.acme.infrastructure;
+
+import java.time.Instant;
+
+/**
+ * Single pass parser for the timestamps the API actually receives: {@code yyyy-MM-dd}, optionally followed by
+ * {@code THH:mm}, {@code :ss}, a fraction of one to nine digits and then {@code Z} or a {@code ±HH:MM} offset.
+ * Date-only and offset-less values are read as UTC, as the {@code DateTimeFormatter}s in {@link InstantConverter}
+ * do.
+ * <p>
+ * The epoch seconds come straight from the digits, without exceptions or intermediate objects; anything outside
+ * that grammar, including invalid dates, yields {@code null} so the caller can fall back to the formatters.
+ */
+final class IsoInstantParser {
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int MAX_OFFSET_HOURS = 18;
+
+    private IsoInstantParser() {
+    }
+
+    static Instant parse(String text) {
+        int length = text.length();
+        if (length < 10) {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        long epochDay = epochDay(year, month, day);
+        if (length == 10) {
+            return Instant.ofEpochSecond(epochDay * SECONDS_PER_DAY);
+        }
+        if (length < 16 || text.charAt(10) != 'T' || text.charAt(13) != ':') {
+            return null;
+        }
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+        int position = 16;
+        int second = 0;
+        int nanos = 0;
+        if (position < length && text.charAt(position) == ':') {
+            second = position + 3 <= length ? digits(text, position + 1, 2) : -1;
+            if (second < 0 || second > 59) {
+                return null;
+            }
+            position += 3;
+            if (position < length && text.charAt(position) == '.') {
+                int start = ++position;
+                while (position < length && position - start < 9 && isDigit(text.charAt(position))) {
+                    nanos = nanos * 10 + (text.charAt(position++) - '0');
+                }
+                if (position == start) {
+                    return null;
+                }
+                for (int scale = position - start; scale < 9; scale++) {
+                    nanos *= 10;
+                }
+            }
+        }
+        int offsetSeconds = 0;
+        if (position < length) {
+            char sign = text.charAt(position);
+            if (sign == 'Z' && position + 1 == length) {
+                offsetSeconds = 0;
+            } else if ((sign == '+' || sign == '-') && position + 6 == length && text.charAt(position + 3) == ':') {
+                int offsetHours = digits(text, position + 1, 2);
+                int offsetMinutes = digits(text, position + 4, 2);
+                if (offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59 || offsetHours > MAX_OFFSET_HOURS
+                        || offsetHours == MAX_OFFSET_HOURS && offsetMinutes > 0) {
+                    return null;
+                }
+                offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (sign == '-' ? -1 : 1);
+            } else {
+                return null;
+            }
+        }
+        long epochSecond = epochDay * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second - offsetSeconds;
+        return Instant.ofEpochSecond(epochSecond, nanos);
+    }
+
+    /**
+     * The value of {@code count} decimal digits starting at {@code offset}, or {@code -1} if any of them is not a
+     * digit.
+     */
+    private static int digits(String text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date, after Howard Hinnant's {@code days_from_civil}.
+     */
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+}
@@ -0,0 +1,192 @@
+package org.acme.infrastructure;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.domain.Payment;
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.Payments;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Keeps the payments in a {@link PaymentJournal} so they survive restarts. At startup the newest journal in
+ * {@code payments.journal.directory} is replayed into the summary index and the running totals; a purge
+ * rotates to a new journal file and deletes the old one.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "payments.store", stringValue = "journal")
+public class JournalPayments implements Payments {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalPayments.class);
+    private static final String PREFIX = "payments-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int maxRecords;
+    private final long bucketMillis;
+    private volatile Store store;
+
+    @Inject
+    public JournalPayments(@ConfigProperty(name = "payments.journal.directory", defaultValue = "/tmp/payments")
+                           String directory,
+                           @ConfigProperty(name = "payments.journal.max-records", defaultValue = "4194304")
+                           int maxRecords,
+                           @ConfigProperty(name = "payments.time-index.bucket-millis", defaultValue = "1")
+                           long bucketMillis) {
+        this.directory = Path.of(directory);
+        this.maxRecords = maxRecords;
+        this.bucketMillis = bucketMillis;
+        this.store = recover();
+    }
+
+    private record Store(long sequence, PaymentJournal journal, TimeBucketedSummaryIndex index, RunningTotals totals) {
+    }
+
+    private Store recover() {
+        long start = System.nanoTime();
+        List<Path> journals = journals();
+        long sequence = journals.isEmpty() ? 0 : sequenceOf(journals.getLast());
+        for (int i = 0; i < journals.size() - 1; i++) {
+            delete(journals.get(i));
+        }
+        Store recovered = open(sequence);
+        recovered.journal().forEach((msb, lsb, processedBy, epochMillis, amountInCents) -> {
+            recovered.index().add(processedBy, epochMillis, amountInCents);
+            recovered.totals().add(processedBy, amountInCents);
+        });
+        LOGGER.info("Recovered {} payments from {} in {} ms", recovered.journal().size(),
+                recovered.journal().path(), (System.nanoTime() - start) / 1_000_000);
+        return recovered;
+    }
+
+    private Store open(long sequence) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not create the journal directory " + directory, e);
+        }
+        return new Store(sequence,
+                PaymentJournal.open(directory.resolve(PREFIX + sequence + SUFFIX), maxRecords),
+                new TimeBucketedSummaryIndex(bucketMillis),
+                new RunningTotals());
+    }
+
+    private List<Path> journals() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> journals = new ArrayList<>(files
+                    .filter(path -> path.getFileName().toString().matches(PREFIX + "\\d+" + SUFFIX))
+                    .toList());
+            journals.sort((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)));
+            return journals;
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not list the journal directory " + directory, e);
+        }
+    }
+
+    private static long sequenceOf(Path journal) {
+        String name = journal.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static void delete(Path journal) {
+        try {
+            Files.deleteIfExists(journal);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete the old payment journal {}: {}", journal, e.getMessage());
+        }
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Instant from, Instant to) {
+        Store current = this.store;
+        if (from == null && to == null) {
+            return current.totals().summary();
+        }
+        long fromEpochMillis = PaymentLedger.fromEpochMillis(from);
+        long toEpochMillis = PaymentLedger.toEpochMillis(to);
+        // the journal answers the windows the index cannot, once it folded its oldest buckets
+        return current.index().trySummarize(fromEpochMillis, toEpochMillis)
+                .orElseGet(() -> summarize(current.journal(), fromEpochMillis, toEpochMillis));
+    }
+
+    private static PaymentsSummary summarize(PaymentJournal journal, long fromEpochMillis, long toEpochMillis) {
+        long[] counts = new long[RemotePaymentName.values().length];
+        long[] cents = new long[RemotePaymentName.values().length];
+        journal.forEach((msb, lsb, processedBy, epochMillis, amountInCents) -> {
+            if (epochMillis >= fromEpochMillis && epochMillis <= toEpochMillis) {
+                counts[processedBy.ordinal()]++;
+                cents[processedBy.ordinal()] += amountInCents;
+            }
+        });
+        return PaymentLedger.toPaymentsSummary(counts, cents);
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Predicate<Payment> filter) {
+        return ofNullable(filter)
+                .map(this::summarize)
+                .orElseGet(() -> PaymentsSummary.of(Map.of()));
+    }
+
+    private PaymentsSummary summarize(Predicate<Payment> filter) {
+        long[] counts = new long[RemotePaymentName.values().length];
+        long[] cents = new long[RemotePaymentName.values().length];
+        store.journal().forEach((msb, lsb, processedBy, epochMillis, amountInCents) -> {
+            Payment payment = Payment.of(new UUID(msb, lsb).toString(),
+                    processedBy,
+                    amountInCents,
+                    Instant.ofEpochMilli(epochMillis));
+            if (filter.test(payment)) {
+                counts[processedBy.ordinal()]++;
+                cents[processedBy.ordinal()] += amountInCents;
+            }
+        });
+        return PaymentsSummary.of(
+                PaymentSummary.ofCents(Math.toIntExact(counts[RemotePaymentName.DEFAULT.ordinal()]), cents[RemotePaymentName.DEFAULT.ordinal()]),
+                PaymentSummary.ofCents(Math.toIntExact(counts[RemotePaymentName.FALLBACK.ordinal()]), cents[RemotePaymentName.FALLBACK.ordinal()]));
+    }
+
+    @Override
+    public void add(Payment payment) {
+        Store current = this.store;
+        current.journal().append(payment);
+        current.index().add(payment.processedBy(), payment.createAt().toEpochMilli(), payment.amountInCents());
+        current.totals().add(payment.processedBy(), payment.amountInCents());
+    }
+
+    @Override
+    public synchronized void purge() {
+        Store previous = this.store;
+        this.store = open(previous.sequence() + 1);
+        // closing the channel keeps the mapping valid for in-flight appends, the GC unmaps it later
+        previous.journal().close();
+        delete(previous.journal().path());
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        store.journal().close();
+    }
+}
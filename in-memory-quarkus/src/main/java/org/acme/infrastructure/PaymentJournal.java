@@ -0,0 +1,152 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.RemotePaymentName;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only journal of processed payments backed by a memory-mapped file of fixed 32 byte records.
+ * <p>
+ * A record holds the correlation id as two longs, the amount in cents and a last word packing the processor
+ * id (ordinal + 1) in its top byte over the epoch millis. Writers reserve a record with a single
+ * {@code getAndIncrement}, fill the first three words and publish the record by writing the last word with
+ * release semantics, so a zero last word means the record was never committed, also after a crash.
+ */
+public final class PaymentJournal implements AutoCloseable {
+
+    static final int RECORD_SIZE = 4 * Long.BYTES;
+
+    // writers in flight when the process died may leave a few empty records behind the last committed one
+    private static final int MAX_RECOVERY_GAP = 1024;
+    private static final int PROCESSOR_SHIFT = 56;
+    private static final long MILLIS_MASK = (1L << PROCESSOR_SHIFT) - 1;
+    private static final RemotePaymentName[] PROCESSORS = RemotePaymentName.values();
+    private static final VarHandle WORD = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicInteger reserved;
+
+    public interface RecordVisitor {
+        void visit(long correlationIdMsb, long correlationIdLsb, RemotePaymentName processedBy, long epochMillis, long amountInCents);
+    }
+
+    private PaymentJournal(Path path, FileChannel channel, MappedByteBuffer buffer, int capacity, int committed) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.reserved = new AtomicInteger(committed);
+    }
+
+    public static PaymentJournal open(Path path, int maxRecords) {
+        if (maxRecords <= 0 || maxRecords > Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalArgumentException("maxRecords must be positive and at most " + Integer.MAX_VALUE / RECORD_SIZE);
+        }
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = Math.multiplyExact((long) maxRecords, RECORD_SIZE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new PaymentJournal(path, channel, buffer, maxRecords, recover(buffer, maxRecords));
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not map the payment journal " + path, e);
+        }
+    }
+
+    private static int recover(MappedByteBuffer buffer, int capacity) {
+        int next = 0;
+        for (int slot = 0; slot < capacity && slot - next < MAX_RECOVERY_GAP; slot++) {
+            if (lastWord(buffer, slot) != 0) {
+                next = slot + 1;
+            }
+        }
+        return next;
+    }
+
+    private static long lastWord(MappedByteBuffer buffer, int slot) {
+        return (long) WORD.getAcquire(buffer, slot * RECORD_SIZE + 3 * Long.BYTES);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public int size() {
+        return Math.min(reserved.get(), capacity);
+    }
+
+    public void append(Payment payment) {
+        long msb = 0;
+        long lsb = 0;
+        if (payment.correlationId() != null) {
+            try {
+                UUID correlationId = UUID.fromString(payment.correlationId());
+                msb = correlationId.getMostSignificantBits();
+                lsb = correlationId.getLeastSignificantBits();
+            } catch (IllegalArgumentException e) {
+                // only UUIDs fit the record, anything else is journaled without its correlation id
+            }
+        }
+        append(msb, lsb, payment.processedBy(), payment.createAt().toEpochMilli(), payment.amountInCents());
+    }
+
+    public void append(long correlationIdMsb, long correlationIdLsb, RemotePaymentName processedBy, long epochMillis, long amountInCents) {
+        if (epochMillis < 0 || epochMillis > MILLIS_MASK) {
+            throw new IllegalArgumentException("epoch millis out of range: " + epochMillis);
+        }
+        int slot = reserved.getAndIncrement();
+        if (slot < 0 || slot >= capacity) {
+            throw new IllegalStateException("payment journal is full, capacity: " + capacity);
+        }
+        int offset = slot * RECORD_SIZE;
+        WORD.set(buffer, offset, correlationIdMsb);
+        WORD.set(buffer, offset + Long.BYTES, correlationIdLsb);
+        WORD.set(buffer, offset + 2 * Long.BYTES, amountInCents);
+        WORD.setRelease(buffer, offset + 3 * Long.BYTES,
+                ((long) (processedBy.ordinal() + 1) << PROCESSOR_SHIFT) | epochMillis);
+    }
+
+    public void forEach(RecordVisitor visitor) {
+        int limit = size();
+        for (int slot = 0; slot < limit; slot++) {
+            long last = lastWord(buffer, slot);
+            if (last == 0) {
+                continue;
+            }
+            int offset = slot * RECORD_SIZE;
+            visitor.visit((long) WORD.get(buffer, offset),
+                    (long) WORD.get(buffer, offset + Long.BYTES),
+                    PROCESSORS[(int) (last >>> PROCESSOR_SHIFT) - 1],
+                    last & MILLIS_MASK,
+                    (long) WORD.get(buffer, offset + 2 * Long.BYTES));
+        }
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not close the payment journal " + path, e);
+        }
+    }
+}
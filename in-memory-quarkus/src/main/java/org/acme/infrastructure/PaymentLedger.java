@@ -0,0 +1,192 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Append-only, chunked struct-of-arrays storage for processed payments.
+ * <p>
+ * Each payment takes one slot spread over three primitive columns (epoch millis, amount in cents and
+ * processor id). Writers reserve slots with a single {@code getAndIncrement}, fill the columns and then
+ * publish the slot by writing the processor byte with release semantics, so readers can scan the
+ * columns in place without locking and without copying them.
+ */
+public final class PaymentLedger {
+
+    static final int CHUNK_SHIFT = 14;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    static final int DEFAULT_MAX_CHUNKS = 1024;
+
+    private static final byte UNPUBLISHED = 0;
+    private static final RemotePaymentName[] PROCESSORS = RemotePaymentName.values();
+    private static final VarHandle PROCESSOR_SLOT = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicReferenceArray<Chunk> chunks;
+    private final int capacity;
+
+    public PaymentLedger() {
+        this(DEFAULT_MAX_CHUNKS);
+    }
+
+    public PaymentLedger(int maxChunks) {
+        if (maxChunks <= 0) {
+            throw new IllegalArgumentException("maxChunks must be positive");
+        }
+        this.chunks = new AtomicReferenceArray<>(maxChunks);
+        this.capacity = Math.multiplyExact(maxChunks, CHUNK_SIZE);
+    }
+
+    private static final class Chunk {
+        final long[] epochMillis = new long[CHUNK_SIZE];
+        final long[] amountInCents = new long[CHUNK_SIZE];
+        final byte[] processors = new byte[CHUNK_SIZE];
+    }
+
+    public void append(Payment payment) {
+        append(payment.processedBy(), payment.createAt().toEpochMilli(), payment.amountInCents());
+    }
+
+    public void append(RemotePaymentName processedBy, long epochMillis, long amountInCents) {
+        int slot = reserved.getAndIncrement();
+        if (slot < 0 || slot >= capacity) {
+            throw new IllegalStateException("payment ledger is full, capacity: " + capacity);
+        }
+        Chunk chunk = chunk(slot >>> CHUNK_SHIFT);
+        int index = slot & CHUNK_MASK;
+        chunk.epochMillis[index] = epochMillis;
+        chunk.amountInCents[index] = amountInCents;
+        PROCESSOR_SLOT.setRelease(chunk.processors, index, (byte) (processedBy.ordinal() + 1));
+    }
+
+    private Chunk chunk(int chunkIndex) {
+        Chunk chunk = chunks.get(chunkIndex);
+        if (chunk == null) {
+            chunks.compareAndSet(chunkIndex, null, new Chunk());
+            chunk = chunks.get(chunkIndex);
+        }
+        return chunk;
+    }
+
+    public int size() {
+        return Math.min(reserved.get(), capacity);
+    }
+
+    public PaymentsSummary summarize(long fromEpochMillis, long toEpochMillis) {
+        long[] counts = new long[PROCESSORS.length];
+        long[] cents = new long[PROCESSORS.length];
+        int limit = size();
+        for (int chunkIndex = 0, base = 0; base < limit; chunkIndex++, base += CHUNK_SIZE) {
+            Chunk chunk = chunks.get(chunkIndex);
+            if (chunk == null) {
+                continue;
+            }
+            int end = Math.min(CHUNK_SIZE, limit - base);
+            for (int i = 0; i < end; i++) {
+                byte processor = (byte) PROCESSOR_SLOT.getAcquire(chunk.processors, i);
+                if (processor == UNPUBLISHED) {
+                    continue;
+                }
+                long epochMillis = chunk.epochMillis[i];
+                if (epochMillis < fromEpochMillis || epochMillis > toEpochMillis) {
+                    continue;
+                }
+                counts[processor - 1]++;
+                cents[processor - 1] += chunk.amountInCents[i];
+            }
+        }
+        return toPaymentsSummary(counts, cents);
+    }
+
+    /**
+     * Adds the payments in {@code [fromEpochMillis, toEpochMillis]} found from {@code fromSlot} on to {@code counts}
+     * and {@code cents}, stopping at the first slot that is not published yet, and returns that slot: every payment
+     * below it has been accounted for, so a later call can resume from there.
+     */
+    int accumulate(long fromEpochMillis, long toEpochMillis, int fromSlot, long[] counts, long[] cents) {
+        int limit = size();
+        int slot = fromSlot;
+        while (slot < limit) {
+            Chunk chunk = chunks.get(slot >>> CHUNK_SHIFT);
+            if (chunk == null) {
+                return slot;
+            }
+            int end = Math.min(limit, (slot | CHUNK_MASK) + 1);
+            for (; slot < end; slot++) {
+                int i = slot & CHUNK_MASK;
+                byte processor = (byte) PROCESSOR_SLOT.getAcquire(chunk.processors, i);
+                if (processor == UNPUBLISHED) {
+                    return slot;
+                }
+                long epochMillis = chunk.epochMillis[i];
+                if (epochMillis < fromEpochMillis || epochMillis > toEpochMillis) {
+                    continue;
+                }
+                counts[processor - 1]++;
+                cents[processor - 1] += chunk.amountInCents[i];
+            }
+        }
+        return limit;
+    }
+
+    public PaymentsSummary summarize(Predicate<Payment> filter) {
+        long[] counts = new long[PROCESSORS.length];
+        long[] cents = new long[PROCESSORS.length];
+        int limit = size();
+        for (int chunkIndex = 0, base = 0; base < limit; chunkIndex++, base += CHUNK_SIZE) {
+            Chunk chunk = chunks.get(chunkIndex);
+            if (chunk == null) {
+                continue;
+            }
+            int end = Math.min(CHUNK_SIZE, limit - base);
+            for (int i = 0; i < end; i++) {
+                byte processor = (byte) PROCESSOR_SLOT.getAcquire(chunk.processors, i);
+                if (processor == UNPUBLISHED) {
+                    continue;
+                }
+                // the ledger does not keep correlation ids, so predicates only see the processor, amount and time
+                Payment payment = Payment.of(null,
+                        PROCESSORS[processor - 1],
+                        chunk.amountInCents[i],
+                        Instant.ofEpochMilli(chunk.epochMillis[i]));
+                if (filter.test(payment)) {
+                    counts[processor - 1]++;
+                    cents[processor - 1] += chunk.amountInCents[i];
+                }
+            }
+        }
+        return toPaymentsSummary(counts, cents);
+    }
+
+    static PaymentsSummary toPaymentsSummary(long[] counts, long[] cents) {
+        return PaymentsSummary.of(
+                toPaymentSummary(counts, cents, RemotePaymentName.DEFAULT),
+                toPaymentSummary(counts, cents, RemotePaymentName.FALLBACK));
+    }
+
+    private static PaymentSummary toPaymentSummary(long[] counts, long[] cents, RemotePaymentName name) {
+        return PaymentSummary.ofCents(Math.toIntExact(counts[name.ordinal()]), cents[name.ordinal()]);
+    }
+
+    static long fromEpochMillis(Instant from) {
+        if (from == null) {
+            return Long.MIN_VALUE;
+        }
+        long millis = from.toEpochMilli();
+        return from.getNano() % 1_000_000 == 0 ? millis : millis + 1;
+    }
+
+    static long toEpochMillis(Instant to) {
+        return to == null ? Long.MAX_VALUE : to.toEpochMilli();
+    }
+}
@@ -0,0 +1,60 @@
+package org.acme.infrastructure;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Turns every {@code payments.*} timer into a latency histogram: Prometheus buckets between
+ * {@code payments.metrics.min-expected} and {@code payments.metrics.max-expected}, so the percentiles can be
+ * aggregated across instances, plus the {@code payments.metrics.percentiles} computed in process from a
+ * HdrHistogram, so {@code /q/metrics} shows where the p99 goes without a query. Both are recorded into
+ * preallocated counters, the hot paths only pay for the {@code System.nanoTime()} calls.
+ */
+@ApplicationScoped
+public class PaymentMeterFilters {
+
+    private final double[] percentiles;
+    private final Duration minExpected;
+    private final Duration maxExpected;
+
+    @Inject
+    public PaymentMeterFilters(@ConfigProperty(name = "payments.metrics.percentiles", defaultValue = "0.5,0.9,0.99,0.999")
+                               List<Double> percentiles,
+                               @ConfigProperty(name = "payments.metrics.min-expected", defaultValue = "PT0.0001S")
+                               Duration minExpected,
+                               @ConfigProperty(name = "payments.metrics.max-expected", defaultValue = "10s")
+                               Duration maxExpected) {
+        this.percentiles = percentiles.stream().mapToDouble(Double::doubleValue).toArray();
+        this.minExpected = minExpected;
+        this.maxExpected = maxExpected;
+    }
+
+    @Produces
+    @Singleton
+    MeterFilter latencyHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || !id.getName().startsWith("payments.")) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .percentiles(percentiles)
+                        .minimumExpectedValue((double) minExpected.toNanos())
+                        .maximumExpectedValue((double) maxExpected.toNanos())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
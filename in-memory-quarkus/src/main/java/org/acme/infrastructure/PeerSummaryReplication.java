@@ -0,0 +1,397 @@
+package org.acme.infrastructure;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.domain.InternalPaymentsManagement;
+import org.acme.domain.Payment;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+import org.acme.domain.SummaryReplication;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streams the payments processed here to the peer as per-bucket count and cents increments, and applies the
+ * peer's increments to a local {@link TimeBucketedSummaryIndex}.
+ * <p>
+ * A single virtual thread seals the increments gathered during {@code payments.summary.replication.interval}
+ * into a batch and pushes the batches in order, one at a time. Batches are numbered within an epoch drawn at
+ * startup and on every purge, and each names the sequence it follows; the peer applies them strictly in order
+ * and answers with the last one it applied, so a repeated push is never counted twice. A batch is dropped here
+ * once the peer applied it: a peer that restarted or was purged, and so lost what it had applied, instead gets a
+ * single snapshot batch of everything sealed in the epoch, compacted to one entry per bucket, which replaces
+ * its replica. While the peer does not answer, the pushes back off up to a second apart.
+ */
+@ApplicationScoped
+public class PeerSummaryReplication implements SummaryReplication {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PeerSummaryReplication.class);
+    private static final RemotePaymentName[] PROCESSORS = RemotePaymentName.values();
+    private static final long MAX_BACKOFF_NANOS = Duration.ofSeconds(1).toNanos();
+    // epoch, sequence it follows (0 replaces the replica), sequence, wall clock millis of the oldest increment
+    // and the number of entries
+    static final int HEADER_BYTES = Long.BYTES * 4 + Integer.BYTES;
+    // bucket millis, processor, count and cents
+    static final int ENTRY_BYTES = Long.BYTES + Byte.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final InternalPaymentsManagement peer;
+    private final boolean enabled;
+    private final long bucketMillis;
+    private final long intervalNanos;
+
+    private final ReentrantLock outboxLock = new ReentrantLock();
+    private final Condition hasPending = outboxLock.newCondition();
+    private final Map<Long, long[]> pending = new HashMap<>();
+    private long pendingSinceMillis;
+    private Outbox outbox = Outbox.open();
+
+    private final ReentrantLock replicaLock = new ReentrantLock();
+    private long peerEpoch;
+    private long peerApplied;
+    private volatile Replica replica;
+    private volatile long lagMillis;
+
+    private volatile Thread replicator;
+
+    @Inject
+    public PeerSummaryReplication(@RestClient
+                                  InternalPaymentsManagement peer,
+                                  MeterRegistry registry,
+                                  @ConfigProperty(name = "payments.summary.replication.enabled", defaultValue = "true")
+                                  boolean enabled,
+                                  @ConfigProperty(name = "payments.time-index.bucket-millis", defaultValue = "1")
+                                  long bucketMillis,
+                                  @ConfigProperty(name = "payments.summary.replication.interval", defaultValue = "5ms")
+                                  Duration interval) {
+        this(peer, enabled, bucketMillis, interval);
+        Gauge.builder("payments.summary.replica.lag", () -> lagMillis).register(registry);
+        Gauge.builder("payments.summary.replication.unacked", this::unacked).register(registry);
+    }
+
+    PeerSummaryReplication(InternalPaymentsManagement peer, boolean enabled, long bucketMillis, Duration interval) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("bucketMillis must be positive");
+        }
+        this.peer = peer;
+        this.enabled = enabled;
+        this.bucketMillis = bucketMillis;
+        this.intervalNanos = interval.toNanos();
+        this.replica = Replica.empty(bucketMillis);
+    }
+
+    private static final class Outbox {
+
+        final long epoch;
+        // the sealed batches the peer has not applied yet, the last one being sequence sealed
+        final ArrayDeque<byte[]> unacked = new ArrayDeque<>();
+        // everything sealed in the epoch, per bucket, to build a snapshot from
+        final Map<Long, long[]> sealedTotals = new HashMap<>();
+        long sealed;
+        long sealedSinceMillis;
+        long acked;
+        boolean resync;
+
+        private Outbox(long epoch) {
+            this.epoch = epoch;
+        }
+
+        static Outbox open() {
+            long epoch;
+            do {
+                epoch = ThreadLocalRandom.current().nextLong();
+            } while (epoch == 0);
+            return new Outbox(epoch);
+        }
+
+        void seal(Map<Long, long[]> increments, long sinceMillis) {
+            unacked.addLast(encode(epoch, sealed, sealed + 1, sinceMillis, increments));
+            increments.forEach((bucket, added) -> sealedTotals.merge(bucket, added, (totals, more) -> {
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += more[i];
+                }
+                return totals;
+            }));
+            sealed++;
+            sealedSinceMillis = sinceMillis;
+        }
+
+        byte[] snapshot() {
+            return encode(epoch, 0, sealed, sealedSinceMillis, sealedTotals);
+        }
+
+        void acknowledge(long sequence) {
+            while (!unacked.isEmpty() && sealed - unacked.size() + 1 <= sequence) {
+                unacked.pollFirst();
+            }
+            acked = Math.max(acked, sequence);
+        }
+
+        boolean settled() {
+            return acked == sealed && !resync;
+        }
+    }
+
+    private record Replica(TimeBucketedSummaryIndex index, RunningTotals totals) {
+
+        static Replica empty(long bucketMillis) {
+            return new Replica(new TimeBucketedSummaryIndex(bucketMillis), new RunningTotals());
+        }
+    }
+
+    @Startup
+    public void start() {
+        if (enabled) {
+            replicator = Thread.ofVirtual().name("summary-replication").start(this::replicate);
+        }
+    }
+
+    private void replicate() {
+        long backoffNanos = 0;
+        while (true) {
+            try {
+                awaitPending();
+                // gives the payments that keep arriving a chance to fold into the same batch
+                TimeUnit.NANOSECONDS.sleep(Math.max(intervalNanos, backoffNanos));
+                flush();
+                if (backoffNanos != 0) {
+                    LOGGER.info("Pushing the summary increments to the peer again");
+                    backoffNanos = 0;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (backoffNanos == 0) {
+                    LOGGER.warn("Could not push the summary increments to the peer, backing off until it answers: {}",
+                            e.getMessage());
+                } else {
+                    LOGGER.debug("Could not push the summary increments to the peer: {}", e.getMessage());
+                }
+                backoffNanos = Math.min(Math.max(intervalNanos, backoffNanos) * 2, MAX_BACKOFF_NANOS);
+            }
+        }
+    }
+
+    private void awaitPending() throws InterruptedException {
+        outboxLock.lockInterruptibly();
+        try {
+            while (pending.isEmpty() && outbox.settled()) {
+                hasPending.await();
+            }
+        } finally {
+            outboxLock.unlock();
+        }
+    }
+
+    /**
+     * Seals the pending increments into the next batch and pushes every batch the peer has not applied yet, or a
+     * snapshot of the epoch if the peer lost batches that are no longer kept here.
+     */
+    void flush() {
+        Outbox current;
+        outboxLock.lock();
+        try {
+            current = outbox;
+            if (!pending.isEmpty()) {
+                current.seal(pending, pendingSinceMillis);
+                pending.clear();
+            }
+        } finally {
+            outboxLock.unlock();
+        }
+        while (true) {
+            byte[] batch;
+            long sequence;
+            boolean snapshot;
+            outboxLock.lock();
+            try {
+                if (outbox != current || current.settled()) {
+                    return;
+                }
+                snapshot = current.resync;
+                batch = snapshot ? current.snapshot() : current.unacked.peekFirst();
+                sequence = snapshot ? current.sealed : current.acked + 1;
+            } finally {
+                outboxLock.unlock();
+            }
+            long applied = peer.pushSummaryDeltas(batch);
+            outboxLock.lock();
+            try {
+                if (outbox != current) {
+                    return;
+                }
+                if (applied < sequence) {
+                    // the peer restarted or was purged since it applied the batches dropped here
+                    current.acked = Math.min(current.acked, applied);
+                    current.resync = true;
+                    if (snapshot) {
+                        return;
+                    }
+                    continue;
+                }
+                current.acknowledge(sequence);
+                if (snapshot) {
+                    current.resync = false;
+                }
+            } finally {
+                outboxLock.unlock();
+            }
+        }
+    }
+
+    private static byte[] encode(long epoch, long base, long sequence, long sinceMillis, Map<Long, long[]> increments) {
+        int entries = 0;
+        for (long[] added : increments.values()) {
+            for (int p = 0; p < PROCESSORS.length; p++) {
+                if (added[p * 2] != 0) {
+                    entries++;
+                }
+            }
+        }
+        ByteBuffer batch = ByteBuffer.allocate(HEADER_BYTES + entries * ENTRY_BYTES)
+                .putLong(epoch)
+                .putLong(base)
+                .putLong(sequence)
+                .putLong(sinceMillis)
+                .putInt(entries);
+        increments.forEach((bucket, added) -> {
+            for (int p = 0; p < PROCESSORS.length; p++) {
+                if (added[p * 2] != 0) {
+                    batch.putLong(bucket)
+                            .put((byte) p)
+                            .putInt(Math.toIntExact(added[p * 2]))
+                            .putLong(added[p * 2 + 1]);
+                }
+            }
+        });
+        return batch.array();
+    }
+
+    @Override
+    public void publish(Payment payment) {
+        if (!enabled) {
+            return;
+        }
+        long bucket = Math.floorDiv(payment.createAt().toEpochMilli(), bucketMillis) * bucketMillis;
+        int processor = payment.processedBy().ordinal();
+        outboxLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                pendingSinceMillis = System.currentTimeMillis();
+                hasPending.signal();
+            }
+            long[] increments = pending.computeIfAbsent(bucket, unused -> new long[PROCESSORS.length * 2]);
+            increments[processor * 2]++;
+            increments[processor * 2 + 1] += payment.amountInCents();
+        } finally {
+            outboxLock.unlock();
+        }
+    }
+
+    @Override
+    public long apply(byte[] batch) {
+        ByteBuffer buffer = ByteBuffer.wrap(batch);
+        long epoch = buffer.getLong();
+        long base = buffer.getLong();
+        long sequence = buffer.getLong();
+        long sinceMillis = buffer.getLong();
+        int entries = buffer.getInt();
+        replicaLock.lock();
+        try {
+            if (epoch == peerEpoch && sequence <= peerApplied) {
+                // a push whose answer was lost
+                return peerApplied;
+            }
+            if (base == 0) {
+                // the first batch of an epoch or a snapshot, either way it replaces what the peer sent before
+                replica = Replica.empty(bucketMillis);
+                peerEpoch = epoch;
+            } else if (epoch != peerEpoch || base != peerApplied) {
+                // tells the peer to send a snapshot
+                return epoch == peerEpoch ? peerApplied : 0;
+            }
+            Replica current = replica;
+            for (int i = 0; i < entries; i++) {
+                long bucket = buffer.getLong();
+                RemotePaymentName processedBy = PROCESSORS[buffer.get()];
+                int count = buffer.getInt();
+                long amountInCents = buffer.getLong();
+                current.index().add(processedBy, bucket, count, amountInCents);
+                current.totals().add(processedBy, count, amountInCents);
+            }
+            peerApplied = sequence;
+            lagMillis = Math.max(0, System.currentTimeMillis() - sinceMillis);
+            return sequence;
+        } finally {
+            replicaLock.unlock();
+        }
+    }
+
+    @Override
+    public PaymentsSummary peerSummary(Instant from, Instant to) {
+        Replica current = this.replica;
+        if (from == null && to == null) {
+            return current.totals().summary();
+        }
+        // only the peer holds its payments, so a window the replica cannot answer exactly fails instead
+        return current.index().summarize(PaymentLedger.fromEpochMillis(from), PaymentLedger.toEpochMillis(to));
+    }
+
+    @Override
+    public void purge() {
+        outboxLock.lock();
+        try {
+            pending.clear();
+            outbox = Outbox.open();
+        } finally {
+            outboxLock.unlock();
+        }
+        // the peer purges right before or after this instance: if after, what it pushes from its old epoch in
+        // between shows up here again until the first batch of its new epoch replaces it
+        replicaLock.lock();
+        try {
+            peerEpoch = 0;
+            peerApplied = 0;
+            replica = Replica.empty(bucketMillis);
+        } finally {
+            replicaLock.unlock();
+        }
+    }
+
+    long lagMillis() {
+        return lagMillis;
+    }
+
+    int unacked() {
+        outboxLock.lock();
+        try {
+            return (int) (outbox.sealed - outbox.acked);
+        } finally {
+            outboxLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        Thread current = replicator;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+}
@@ -1,4 +1,81 @@
 package org.acme.infrastructure;
 
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.acme.domain.DefaultPaymentProcessor;
+import org.acme.domain.FallbackPaymentProcessor;
+import org.acme.domain.RemotePaymentProcessorExecutor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+/**
+ * Picks the engine that sends payments to the processors: the MicroProfile REST clients ({@code rest-client})
+ * or a pooled Vert.x HTTP client per processor ({@code vertx}), selected by {@code payment-processor.engine}.
+ */
+@ApplicationScoped
 public class RemotePaymentProcessorProducers {
+
+    private final Vertx vertx;
+    private final String engine;
+    private final int poolSize;
+
+    @Inject
+    public RemotePaymentProcessorProducers(Vertx vertx,
+                                           @ConfigProperty(name = "payment-processor.engine", defaultValue = "rest-client")
+                                           String engine,
+                                           @ConfigProperty(name = "payment-processor.vertx.pool-size", defaultValue = "128")
+                                           int poolSize) {
+        this.vertx = vertx;
+        this.engine = engine;
+        this.poolSize = poolSize;
+    }
+
+    @Produces
+    @Singleton
+    @Named(RemotePaymentProcessorExecutor.DEFAULT_EXECUTOR)
+    RemotePaymentProcessorExecutor defaultExecutor(@RestClient DefaultPaymentProcessor restClient,
+                                                   @ConfigProperty(name = "default-payment-processor.url")
+                                                   String url,
+                                                   @ConfigProperty(name = "quarkus.rest-client.default-payment-processor.read-timeout", defaultValue = "180")
+                                                   long timeoutMillis) {
+        return select(restClient, url, timeoutMillis);
+    }
+
+    @Produces
+    @Singleton
+    @Named(RemotePaymentProcessorExecutor.FALLBACK_EXECUTOR)
+    RemotePaymentProcessorExecutor fallbackExecutor(@RestClient FallbackPaymentProcessor restClient,
+                                                    @ConfigProperty(name = "fallback-payment-processor.url")
+                                                    String url,
+                                                    @ConfigProperty(name = "quarkus.rest-client.fallback-payment-processor.read-timeout", defaultValue = "95")
+                                                    long timeoutMillis) {
+        return select(restClient, url, timeoutMillis);
+    }
+
+    private RemotePaymentProcessorExecutor select(RemotePaymentProcessorExecutor restClient, String url, long timeoutMillis) {
+        return switch (engine) {
+            case "rest-client" -> restClient;
+            case "vertx" -> new VertxPaymentProcessorExecutor(vertx, url, poolSize, timeoutMillis);
+            default -> throw new IllegalArgumentException("unknown payment-processor.engine: " + engine);
+        };
+    }
+
+    void closeDefault(@Disposes @Named(RemotePaymentProcessorExecutor.DEFAULT_EXECUTOR) RemotePaymentProcessorExecutor executor) {
+        close(executor);
+    }
+
+    void closeFallback(@Disposes @Named(RemotePaymentProcessorExecutor.FALLBACK_EXECUTOR) RemotePaymentProcessorExecutor executor) {
+        close(executor);
+    }
+
+    private static void close(RemotePaymentProcessorExecutor executor) {
+        if (executor instanceof VertxPaymentProcessorExecutor vertxExecutor) {
+            vertxExecutor.close();
+        }
+    }
 }
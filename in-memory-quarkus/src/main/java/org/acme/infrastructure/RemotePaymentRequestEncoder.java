@@ -0,0 +1,139 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.RemotePaymentRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Writes the same JSON body Jackson produces for {@link RemotePaymentRequest} by filling a fixed template with
+ * the correlation id, the amount and the {@code requestedAt} millis formatted in UTC.
+ */
+final class RemotePaymentRequestEncoder {
+
+    private static final byte[] CORRELATION_ID = "{\"correlationId\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] AMOUNT = "\",\"amount\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REQUESTED_AT = ",\"requestedAt\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END = "\"}".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+            .withZone(ZoneOffset.UTC);
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    // 0001-01-01T00:00:00Z and 10000-01-01T00:00:00Z, the range the four digit year of era covers
+    private static final long MIN_MILLIS = -62_135_596_800_000L;
+    private static final long MAX_MILLIS = 253_402_300_800_000L;
+
+    private RemotePaymentRequestEncoder() {
+    }
+
+    static byte[] encode(RemotePaymentRequest request) {
+        String correlationId = request.correlationId();
+        byte[] target = new byte[CORRELATION_ID.length + 6 * correlationId.length() + AMOUNT.length + 21
+                + REQUESTED_AT.length + 32 + END.length];
+        int offset = put(CORRELATION_ID, target, 0);
+        offset = putEscaped(correlationId, target, offset);
+        offset = put(AMOUNT, target, offset);
+        offset = putCents(request.amountInCents(), target, offset);
+        offset = put(REQUESTED_AT, target, offset);
+        offset = putTimestamp(request.requestedAt().toEpochMilli(), target, offset);
+        offset = put(END, target, offset);
+        return Arrays.copyOf(target, offset);
+    }
+
+    private static int put(byte[] bytes, byte[] target, int offset) {
+        System.arraycopy(bytes, 0, target, offset, bytes.length);
+        return offset + bytes.length;
+    }
+
+    private static int putEscaped(String value, byte[] target, int offset) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                target[offset++] = '\\';
+                target[offset++] = (byte) c;
+            } else if (c < 0x20 || c > 0x7e) {
+                target[offset++] = '\\';
+                target[offset++] = 'u';
+                target[offset++] = HEX[c >>> 12];
+                target[offset++] = HEX[(c >>> 8) & 0xf];
+                target[offset++] = HEX[(c >>> 4) & 0xf];
+                target[offset++] = HEX[c & 0xf];
+            } else {
+                target[offset++] = (byte) c;
+            }
+        }
+        return offset;
+    }
+
+    private static int putCents(long cents, byte[] target, int offset) {
+        if (cents < 0) {
+            target[offset++] = '-';
+        }
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        offset = putDigits(abs / 100, target, offset);
+        target[offset++] = '.';
+        target[offset++] = (byte) ('0' + fraction / 10);
+        target[offset++] = (byte) ('0' + fraction % 10);
+        return offset;
+    }
+
+    private static int putDigits(long value, byte[] target, int offset) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            target[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + digits;
+    }
+
+    static int putTimestamp(long epochMillis, byte[] target, int offset) {
+        if (epochMillis < MIN_MILLIS || epochMillis >= MAX_MILLIS) {
+            return put(TIMESTAMP.format(Instant.ofEpochMilli(epochMillis)).getBytes(StandardCharsets.US_ASCII), target, offset);
+        }
+        long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) Math.floorMod(epochMillis, MILLIS_PER_DAY);
+
+        // civil date from days since the epoch, after Howard Hinnant's days_from_civil inverse
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        int dayOfEra = (int) (z - era * 146_097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+
+        int seconds = millisOfDay / 1000;
+        offset = putPadded(year, 4, target, offset);
+        target[offset++] = '-';
+        offset = putPadded(month, 2, target, offset);
+        target[offset++] = '-';
+        offset = putPadded(day, 2, target, offset);
+        target[offset++] = 'T';
+        offset = putPadded(seconds / 3600, 2, target, offset);
+        target[offset++] = ':';
+        offset = putPadded(seconds / 60 % 60, 2, target, offset);
+        target[offset++] = ':';
+        offset = putPadded(seconds % 60, 2, target, offset);
+        target[offset++] = '.';
+        offset = putPadded(millisOfDay % 1000, 3, target, offset);
+        target[offset++] = 'Z';
+        return offset;
+    }
+
+    private static int putPadded(int value, int width, byte[] target, int offset) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            target[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + width;
+    }
+}
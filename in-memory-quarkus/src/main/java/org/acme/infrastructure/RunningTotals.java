@@ -0,0 +1,44 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-processor striped count and cents accumulators, so the unbounded summary is an O(1) read that never
+ * contends with the threads adding payments.
+ */
+public final class RunningTotals {
+
+    private static final RemotePaymentName[] PROCESSORS = RemotePaymentName.values();
+
+    private final LongAdder[] counts = new LongAdder[PROCESSORS.length];
+    private final LongAdder[] cents = new LongAdder[PROCESSORS.length];
+
+    public RunningTotals() {
+        for (int p = 0; p < PROCESSORS.length; p++) {
+            counts[p] = new LongAdder();
+            cents[p] = new LongAdder();
+        }
+    }
+
+    public void add(RemotePaymentName processedBy, long amountInCents) {
+        cents[processedBy.ordinal()].add(amountInCents);
+        counts[processedBy.ordinal()].increment();
+    }
+
+    public void add(RemotePaymentName processedBy, long count, long amountInCents) {
+        cents[processedBy.ordinal()].add(amountInCents);
+        counts[processedBy.ordinal()].add(count);
+    }
+
+    public PaymentsSummary summary() {
+        return PaymentsSummary.of(summary(RemotePaymentName.DEFAULT), summary(RemotePaymentName.FALLBACK));
+    }
+
+    private PaymentSummary summary(RemotePaymentName name) {
+        return PaymentSummary.ofCents(Math.toIntExact(counts[name.ordinal()].sum()), cents[name.ordinal()].sum());
+    }
+}
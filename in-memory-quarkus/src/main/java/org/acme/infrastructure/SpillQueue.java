@@ -0,0 +1,198 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.NewPaymentRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Unbounded-looking FIFO of payment requests kept in memory-mapped segment files of fixed 40 byte records, so a
+ * burst costs page cache instead of heap.
+ * <p>
+ * A record holds the correlation id as two longs, the amount in cents, the request's {@code receivedAtNanos} and
+ * a last word with the attempts + 1, written with release semantics to commit the record. Producers reserve a
+ * position with a CAS on the tail, bounded by {@code maxRecords} pending records; a single consumer at a time
+ * reads at the head and deletes each segment once it moved past it. The segments only live as long as the
+ * process, since {@code receivedAtNanos} means nothing to the next one.
+ */
+public final class SpillQueue implements AutoCloseable {
+
+    static final int RECORD_SIZE = 5 * Long.BYTES;
+
+    private static final String PREFIX = "spill-";
+    private static final String SUFFIX = ".segment";
+    private static final VarHandle WORD = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final long maxRecords;
+    private final Map<Long, Segment> segments = new ConcurrentHashMap<>();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private record Segment(Path path, MappedByteBuffer buffer) {
+    }
+
+    public SpillQueue(Path directory, int segmentRecords, long maxRecords) {
+        if (segmentRecords <= 0 || segmentRecords > Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalArgumentException("segmentRecords must be positive and at most " + Integer.MAX_VALUE / RECORD_SIZE);
+        }
+        if (maxRecords <= 0) {
+            throw new IllegalArgumentException("maxRecords must be positive");
+        }
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.maxRecords = maxRecords;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                // leftovers of a previous process
+                for (Path path : files.filter(SpillQueue::isSegment).toList()) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not prepare the spill directory " + directory, e);
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    /**
+     * Appends the request, or returns {@code false} when the queue holds {@code maxRecords} records already, the
+     * correlation id is not a UUID and so does not fit a record, or the segment to write it to cannot be mapped.
+     */
+    public boolean offer(NewPaymentRequest request) {
+        UUID correlationId;
+        try {
+            correlationId = UUID.fromString(request.correlationId());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return false;
+        }
+        long position;
+        MappedByteBuffer buffer;
+        do {
+            position = tail.get();
+            if (position - head >= maxRecords) {
+                return false;
+            }
+            // mapped before the position is reserved, since a reserved record that is never committed would stall
+            // the consumer on it for good
+            try {
+                buffer = segment(position / segmentRecords).buffer();
+            } catch (UncheckedIOException e) {
+                return false;
+            }
+        } while (!tail.compareAndSet(position, position + 1));
+
+        long index = position / segmentRecords;
+        int offset = (int) (position % segmentRecords) * RECORD_SIZE;
+        WORD.set(buffer, offset, correlationId.getMostSignificantBits());
+        WORD.set(buffer, offset + Long.BYTES, correlationId.getLeastSignificantBits());
+        WORD.set(buffer, offset + 2 * Long.BYTES, request.amountInCents());
+        WORD.set(buffer, offset + 3 * Long.BYTES, request.receivedAtNanos());
+        WORD.setRelease(buffer, offset + 4 * Long.BYTES, request.attempts() + 1L);
+        if (index < head / segmentRecords) {
+            // a clear() ran meanwhile and may have released the segment, this append was dropped with it
+            release(index);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the oldest request, or returns {@code null} when the queue is empty or the oldest record is still
+     * being written.
+     */
+    public synchronized NewPaymentRequest poll() {
+        long position = head;
+        if (position >= tail.get()) {
+            return null;
+        }
+        long index = position / segmentRecords;
+        MappedByteBuffer buffer = segment(index).buffer();
+        int offset = (int) (position % segmentRecords) * RECORD_SIZE;
+        long committed = (long) WORD.getAcquire(buffer, offset + 4 * Long.BYTES);
+        if (committed == 0) {
+            return null;
+        }
+        NewPaymentRequest request = new NewPaymentRequest(
+                new UUID((long) WORD.get(buffer, offset), (long) WORD.get(buffer, offset + Long.BYTES)).toString(),
+                (long) WORD.get(buffer, offset + 2 * Long.BYTES),
+                (int) (committed - 1),
+                (long) WORD.get(buffer, offset + 3 * Long.BYTES));
+        head = position + 1;
+        if ((position + 1) % segmentRecords == 0) {
+            release(index);
+        }
+        return request;
+    }
+
+    public long size() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Drops every record appended so far; appends still being written are dropped with them.
+     */
+    public synchronized void clear() {
+        long position = tail.get();
+        long index = position / segmentRecords;
+        head = position;
+        for (Long segment : segments.keySet()) {
+            if (segment < index) {
+                release(segment);
+            }
+        }
+    }
+
+    private Segment segment(long index) {
+        return segments.computeIfAbsent(index, this::map);
+    }
+
+    private Segment map(long index) {
+        Path path = directory.resolve(PREFIX + index + SUFFIX);
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping outlives the channel, and a new file reads as zeros, that is as uncommitted records
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_SIZE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not map the spill segment " + path, e);
+        }
+    }
+
+    private void release(long index) {
+        Segment segment = segments.remove(index);
+        if (segment != null) {
+            try {
+                Files.deleteIfExists(segment.path());
+            } catch (IOException e) {
+                throw new UncheckedIOException("could not delete the spill segment " + segment.path(), e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.keySet().forEach(this::release);
+    }
+}
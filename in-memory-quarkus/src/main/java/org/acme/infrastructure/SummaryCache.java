@@ -0,0 +1,101 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of the windowed summaries computed over a {@link PaymentLedger}.
+ * <p>
+ * Every entry is stamped with the ledger slot up to which it has been computed, so serving it again only scans
+ * the payments appended since: nothing while no payment arrived, and nothing that changes the result once the
+ * window lies before every new payment, which keeps windows in the past valid indefinitely. Identical concurrent
+ * requests queue on the entry's lock, so only the first one scans and the others read its result.
+ */
+final class SummaryCache {
+
+    private static final int PROCESSORS = RemotePaymentName.values().length;
+
+    private final PaymentLedger ledger;
+    private final int maxEntries;
+    private final ConcurrentHashMap<Window, Entry> entries = new ConcurrentHashMap<>();
+
+    SummaryCache(PaymentLedger ledger, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.ledger = ledger;
+        this.maxEntries = maxEntries;
+    }
+
+    private record Window(long fromEpochMillis, long toEpochMillis) {
+    }
+
+    private record Snapshot(int generation, long[] counts, long[] cents, PaymentsSummary summary) {
+    }
+
+    private static final class Entry {
+        final ReentrantLock lock = new ReentrantLock();
+        volatile Snapshot snapshot;
+    }
+
+    PaymentsSummary summarize(long fromEpochMillis, long toEpochMillis) {
+        Window window = new Window(fromEpochMillis, toEpochMillis);
+        Entry entry = entries.get(window);
+        if (entry == null) {
+            if (entries.size() >= maxEntries) {
+                evictOne();
+            }
+            entry = entries.computeIfAbsent(window, unused -> new Entry());
+        }
+        Snapshot snapshot = entry.snapshot;
+        if (snapshot != null && snapshot.generation() == ledger.size()) {
+            return snapshot.summary();
+        }
+        entry.lock.lock();
+        try {
+            snapshot = entry.snapshot;
+            if (snapshot != null && snapshot.generation() == ledger.size()) {
+                return snapshot.summary();
+            }
+            entry.snapshot = snapshot = refresh(window, snapshot);
+            return snapshot.summary();
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private Snapshot refresh(Window window, Snapshot previous) {
+        long[] counts = new long[PROCESSORS];
+        long[] cents = new long[PROCESSORS];
+        int from = previous == null ? 0 : previous.generation();
+        int generation = ledger.accumulate(window.fromEpochMillis(), window.toEpochMillis(), from, counts, cents);
+        if (previous == null) {
+            return new Snapshot(generation, counts, cents, PaymentLedger.toPaymentsSummary(counts, cents));
+        }
+        boolean changed = false;
+        for (int p = 0; p < PROCESSORS; p++) {
+            changed |= counts[p] != 0;
+            counts[p] += previous.counts()[p];
+            cents[p] += previous.cents()[p];
+        }
+        return changed
+                ? new Snapshot(generation, counts, cents, PaymentLedger.toPaymentsSummary(counts, cents))
+                : new Snapshot(generation, previous.counts(), previous.cents(), previous.summary());
+    }
+
+    private void evictOne() {
+        Iterator<Window> windows = entries.keySet().iterator();
+        if (windows.hasNext()) {
+            windows.next();
+            windows.remove();
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,72 @@
+package org.acme.infrastructure;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.domain.Payment;
+import org.acme.domain.Payments;
+import org.acme.domain.PaymentsSummary;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static java.util.Optional.ofNullable;
+
+@ApplicationScoped
+@IfBuildProperty(name = "payments.store", stringValue = "time-index")
+public class TimeIndexedPayments implements Payments {
+
+    private final long bucketMillis;
+    private volatile Store store;
+
+    @Inject
+    public TimeIndexedPayments(@ConfigProperty(name = "payments.time-index.bucket-millis", defaultValue = "1")
+                               long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+        this.store = newStore();
+    }
+
+    private record Store(PaymentLedger ledger, TimeBucketedSummaryIndex index, RunningTotals totals) {
+    }
+
+    private Store newStore() {
+        return new Store(new PaymentLedger(), new TimeBucketedSummaryIndex(bucketMillis), new RunningTotals());
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Instant from, Instant to) {
+        Store current = this.store;
+        if (from == null && to == null) {
+            return current.totals().summary();
+        }
+        long fromEpochMillis = PaymentLedger.fromEpochMillis(from);
+        long toEpochMillis = PaymentLedger.toEpochMillis(to);
+        // the ledger answers the windows the index cannot, once it folded its oldest buckets
+        return current.index().trySummarize(fromEpochMillis, toEpochMillis)
+                .orElseGet(() -> current.ledger().summarize(fromEpochMillis, toEpochMillis));
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Predicate<Payment> filter) {
+        return ofNullable(filter)
+                .map(store.ledger()::summarize)
+                .orElseGet(() -> PaymentsSummary.of(Map.of()));
+    }
+
+    @Override
+    public void add(Payment payment) {
+        Store current = this.store;
+        long epochMillis = payment.createAt().toEpochMilli();
+        long amountInCents = payment.amountInCents();
+        current.ledger().append(payment.processedBy(), epochMillis, amountInCents);
+        current.index().add(payment.processedBy(), epochMillis, amountInCents);
+        current.totals().add(payment.processedBy(), amountInCents);
+    }
+
+    @Override
+    public void purge() {
+        this.store = newStore();
+    }
+}
@@ -0,0 +1,66 @@
+package org.acme.infrastructure;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.core.http.RequestOptions;
+import org.acme.domain.RemotePaymentProcessorExecutor;
+import org.acme.domain.RemotePaymentRequest;
+import org.acme.domain.RemotePaymentResponse;
+
+import java.net.URI;
+
+/**
+ * {@link RemotePaymentProcessorExecutor} on a pooled Vert.x {@link HttpClient}: the body comes from
+ * {@link RemotePaymentRequestEncoder} and only the status code of the response is looked at. Callers block on
+ * the result, which is cheap on the virtual threads the worker runs payments on.
+ */
+public class VertxPaymentProcessorExecutor implements RemotePaymentProcessorExecutor, AutoCloseable {
+
+    private static final RemotePaymentResponse ACCEPTED = new RemotePaymentResponse(null);
+
+    private final HttpClient client;
+    private final RequestOptions options;
+
+    public VertxPaymentProcessorExecutor(Vertx vertx, String url, int poolSize, long timeoutMillis) {
+        URI uri = URI.create(url);
+        boolean ssl = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() > 0 ? uri.getPort() : ssl ? 443 : 80;
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath().replaceAll("/+$", "");
+        this.client = vertx.createHttpClient(new HttpClientOptions()
+                        .setDefaultHost(uri.getHost())
+                        .setDefaultPort(port)
+                        .setSsl(ssl)
+                        .setKeepAlive(true),
+                new PoolOptions().setHttp1MaxSize(poolSize));
+        this.options = new RequestOptions()
+                .setMethod(HttpMethod.POST)
+                .setURI(path + "/payments")
+                .setIdleTimeout(timeoutMillis)
+                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+    }
+
+    @Override
+    public RemotePaymentResponse processPayment(RemotePaymentRequest request) {
+        Buffer body = Buffer.buffer(RemotePaymentRequestEncoder.encode(request));
+        int status = client.request(options)
+                .compose(outbound -> outbound.send(body))
+                .compose(response -> response.end().map(ignored -> response.statusCode()))
+                .toCompletionStage()
+                .toCompletableFuture()
+                .join();
+        if (status < 200 || status >= 300) {
+            throw new IllegalStateException("payment processor answered with status " + status);
+        }
+        return ACCEPTED;
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+}
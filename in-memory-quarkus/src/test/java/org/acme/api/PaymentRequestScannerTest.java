@@ -0,0 +1,51 @@
+package org.acme.api;
+
+import io.vertx.core.buffer.Buffer;
+import org.acme.domain.NewPaymentRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentRequestScannerTest {
+
+    private static NewPaymentRequest scan(String body) {
+        return PaymentRequestScanner.scan(Buffer.buffer(body));
+    }
+
+    @Test
+    void testScansTheUsualBodiesInAnyKeyOrder() {
+        NewPaymentRequest request = scan("{\"correlationId\":\"4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3\",\"amount\":19.9}");
+        assertEquals("4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3", request.correlationId());
+        assertEquals(1990, request.amountInCents());
+
+        request = scan(" {\n  \"amount\" : 7 ,\n  \"correlationId\" : \"abc\"\n}\n");
+        assertEquals("abc", request.correlationId());
+        assertEquals(700, request.amountInCents());
+
+        assertEquals(5, scan("{\"correlationId\":\"a\",\"amount\":0.05}").amountInCents());
+    }
+
+    @Test
+    void testLeavesEverythingElseToJackson() {
+        assertNull(scan(""));
+        assertNull(scan("{\"correlationId\":\"a\"}"));
+        assertNull(scan("{\"correlationId\":\"a\",\"amount\":19.905}"));
+        assertNull(scan("{\"correlationId\":\"a\",\"amount\":1e3}"));
+        assertNull(scan("{\"correlationId\":\"a\",\"amount\":-1}"));
+        assertNull(scan("{\"correlationId\":\"a\",\"amount\":01}"));
+        assertNull(scan("{\"correlationId\":\"a\",\"amount\":\"19.90\"}"));
+        assertNull(scan("{\"correlationId\":\"a\\\"b\",\"amount\":1}"));
+        assertNull(scan("{\"correlationId\":\"a\",\"amount\":1,\"extra\":true}"));
+        assertNull(scan("{\"correlationId\":\"a\",\"amount\":1} trailing"));
+        assertNull(scan("{\"correlationId\":\"a\",\"amount\":99999999999999999999}"));
+    }
+
+    @Test
+    void testLeavesAmountsWhoseCentsOverflowToJackson() {
+        long maxUnits = (Long.MAX_VALUE - 99) / 100;
+        assertEquals(maxUnits * 100 + 99, scan("{\"correlationId\":\"a\",\"amount\":" + maxUnits + ".99}").amountInCents());
+        // 18 digits still fit in a long, but not once multiplied by 100
+        assertNull(scan("{\"correlationId\":\"a\",\"amount\":200000000000000000}"));
+        assertNull(scan("{\"correlationId\":\"a\",\"amount\":" + (maxUnits + 1) + "}"));
+    }
+}
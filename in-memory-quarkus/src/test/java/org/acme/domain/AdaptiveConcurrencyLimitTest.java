@@ -0,0 +1,70 @@
+package org.acme.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void testGrowsWhileSaturatedAndFast() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 64, 0.9, 2.0);
+        for (int round = 0; round < 100; round++) {
+            int current = limit.limit();
+            for (int i = 0; i < current; i++) {
+                limit.acquire();
+            }
+            for (int i = 0; i < current; i++) {
+                limit.release(FAST, true);
+            }
+        }
+        assertTrue(limit.limit() > 4, "limit " + limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+
+    @Test
+    void testShrinksOnErrorsAndSlowCalls() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(32, 2, 64, 0.5, 2.0);
+        limit.acquire();
+        limit.release(FAST, true);
+
+        limit.acquire();
+        limit.release(SLOW, true);
+        assertEquals(16, limit.limit());
+
+        limit.acquire();
+        limit.release(FAST, false);
+        assertEquals(8, limit.limit());
+
+        for (int i = 0; i < 10; i++) {
+            limit.acquire();
+            limit.release(FAST, false);
+        }
+        assertEquals(2, limit.limit());
+    }
+
+    @Test
+    void testAcquireBlocksAtTheLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 1, 0.9, 2.0);
+        limit.acquire();
+        Thread waiter = Thread.startVirtualThread(() -> {
+            try {
+                limit.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.join(100);
+        assertTrue(waiter.isAlive());
+
+        limit.release(FAST, true);
+        waiter.join(5000);
+        assertFalse(waiter.isAlive());
+        assertEquals(1, limit.inFlight());
+    }
+}
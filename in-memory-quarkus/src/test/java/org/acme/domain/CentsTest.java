@@ -0,0 +1,49 @@
+package org.acme.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CentsTest {
+
+    @Test
+    void testParseIsEquivalentToBigDecimal() {
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            String text = BigDecimal.valueOf(random.nextLong(-10_000_000, 10_000_000), random.nextInt(6)).toPlainString();
+            long expected = new BigDecimal(text).movePointRight(2).setScale(0, RoundingMode.HALF_DOWN).longValueExact();
+            assertEquals(expected, Cents.parse(text), text);
+            assertEquals(expected, Cents.of(new BigDecimal(text)), text);
+        }
+    }
+
+    @Test
+    void testParseRoundsHalfDown() {
+        assertEquals(1990, Cents.parse("19.90"));
+        assertEquals(1990, Cents.parse("19.9"));
+        assertEquals(1900, Cents.parse("19"));
+        assertEquals(0, Cents.parse("0.005"));
+        assertEquals(1, Cents.parse("0.0051"));
+        assertEquals(-1, Cents.parse("-0.0051"));
+        assertEquals(10000, Cents.parse("1e2"));
+    }
+
+    @Test
+    void testParseRejectsInvalidAmounts() {
+        assertThrows(NumberFormatException.class, () -> Cents.parse(""));
+        assertThrows(NumberFormatException.class, () -> Cents.parse("19,90"));
+    }
+
+    @Test
+    void testFormatIsEquivalentToBigDecimal() {
+        Random random = new Random(13);
+        for (int i = 0; i < 100_000; i++) {
+            long cents = random.nextLong(-10_000_000, 10_000_000);
+            assertEquals(BigDecimal.valueOf(cents, 2).toPlainString(), Cents.format(cents));
+        }
+    }
+}
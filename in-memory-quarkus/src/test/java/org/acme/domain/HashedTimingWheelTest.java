@@ -0,0 +1,66 @@
+package org.acme.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    @Test
+    void testExpiresItemsInDeadlineOrderAfterTheirDelay() throws InterruptedException {
+        List<Integer> expired = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        try (HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>("test", Duration.ofMillis(1), 8, item -> {
+            expired.add(item);
+            latch.countDown();
+        })) {
+            long start = System.nanoTime();
+            // 40ms spans several rotations of an 8 slot wheel
+            wheel.schedule(3, Duration.ofMillis(40));
+            wheel.schedule(1, Duration.ofMillis(5));
+            wheel.schedule(2, Duration.ofMillis(20));
+            assertEquals(3, wheel.pending());
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40));
+            assertEquals(List.of(1, 2, 3), expired);
+            assertEquals(0, wheel.pending());
+        }
+    }
+
+    @Test
+    void testClearDropsScheduledItems() throws InterruptedException {
+        List<Integer> expired = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        try (HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>("test", Duration.ofMillis(1), 8, item -> {
+            expired.add(item);
+            latch.countDown();
+        })) {
+            wheel.schedule(1, Duration.ofMillis(10));
+            wheel.clear();
+            wheel.schedule(2, Duration.ofMillis(20));
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of(2), expired);
+        }
+    }
+
+    @Test
+    void testRetryPolicyStaysWithinTheBudget() {
+        RetryPolicy policy = new RetryPolicy(Duration.ofMillis(10), Duration.ofSeconds(1), 5, Duration.ofSeconds(2));
+        for (int attempt = 0; attempt < 5; attempt++) {
+            Duration ceiling = Duration.ofMillis(Math.min(1000, 10L << attempt));
+            Duration delay = policy.nextDelay(attempt, Duration.ZERO).orElseThrow();
+            assertTrue(delay.compareTo(ceiling.dividedBy(2)) >= 0 && delay.compareTo(ceiling) <= 0, delay.toString());
+        }
+        assertTrue(policy.nextDelay(5, Duration.ZERO).isEmpty());
+        assertTrue(policy.nextDelay(1, Duration.ofSeconds(2)).isEmpty());
+        assertTrue(policy.nextDelay(4, Duration.ofMillis(1990)).orElseThrow().compareTo(Duration.ofMillis(10)) <= 0);
+    }
+}
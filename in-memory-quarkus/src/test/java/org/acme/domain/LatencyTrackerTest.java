@@ -0,0 +1,50 @@
+package org.acme.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyTrackerTest {
+
+    private static final long HALF_LIFE = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    void testQuantileFollowsTheRecordedLatencies() {
+        LatencyTracker tracker = new LatencyTracker(0.2, HALF_LIFE, 0);
+        for (int i = 0; i < 90; i++) {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(10), true, 0);
+        }
+        for (int i = 0; i < 10; i++) {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(1000), true, 0);
+        }
+
+        double p50 = tracker.quantileMillis(0.5, 0);
+        double p99 = tracker.quantileMillis(0.99, 0);
+        assertTrue(p50 >= 10 && p50 < 12.5, "p50 " + p50);
+        assertTrue(p99 >= 1000 && p99 < 1250, "p99 " + p99);
+        assertEquals(0.0, tracker.errorRate());
+    }
+
+    @Test
+    void testSamplesDecayAway() {
+        LatencyTracker tracker = new LatencyTracker(0.2, HALF_LIFE, 0);
+        for (int i = 0; i < 100; i++) {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(500), false, 0);
+        }
+        assertFalse(Double.isNaN(tracker.quantileMillis(0.9, HALF_LIFE)));
+        assertTrue(Double.isNaN(tracker.quantileMillis(0.9, 8 * HALF_LIFE)));
+        assertTrue(tracker.errorRate() > 0.99);
+    }
+
+    @Test
+    void testEwmaConvergesToTheRecentLatency() {
+        LatencyTracker tracker = new LatencyTracker(0.5, HALF_LIFE, 0);
+        assertTrue(Double.isNaN(tracker.ewmaMillis()));
+        tracker.record(TimeUnit.MILLISECONDS.toNanos(100), true, 0);
+        assertEquals(100.0, tracker.ewmaMillis(), 1e-9);
+        tracker.record(TimeUnit.MILLISECONDS.toNanos(200), true, 0);
+        assertEquals(150.0, tracker.ewmaMillis(), 1e-9);
+    }
+}
@@ -0,0 +1,87 @@
+package org.acme.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpmcRingBufferTest {
+
+    @Test
+    void testRoundsCapacityUpAndRejectsOffersWhenFull() {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(5);
+        assertEquals(8, buffer.capacity());
+        for (int i = 0; i < 8; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(8));
+        assertEquals(8, buffer.size());
+        assertEquals(0, buffer.remainingCapacity());
+
+        assertEquals(Integer.valueOf(0), buffer.poll());
+        assertTrue(buffer.offer(8));
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void testDeliversEveryElementExactlyOnceAcrossThreads() throws InterruptedException {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 50_000;
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(1024);
+        AtomicLongArray seen = new AtomicLongArray(producers * perProducer);
+        AtomicLong received = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < consumers; c++) {
+            threads.add(Thread.startVirtualThread(() -> {
+                try {
+                    while (true) {
+                        int value = buffer.take();
+                        if (value < 0) {
+                            return;
+                        }
+                        seen.incrementAndGet(value);
+                        received.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        List<Thread> producerThreads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            producerThreads.add(Thread.startVirtualThread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        for (Thread producer : producerThreads) {
+            producer.join();
+        }
+        for (int c = 0; c < consumers; c++) {
+            while (!buffer.offer(-1)) {
+                Thread.yield();
+            }
+        }
+        for (Thread consumer : threads) {
+            consumer.join(10_000);
+            assertFalse(consumer.isAlive());
+        }
+
+        assertEquals(producers * perProducer, received.get());
+        for (int i = 0; i < seen.length(); i++) {
+            assertEquals(1, seen.get(i), "element " + i);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package org.acme.domain;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -48,4 +52,82 @@ class PaymentSummaryTest {
         assertEquals(2, summary.totalRequests());
         assertEquals(BigDecimal.valueOf(10.00).setScale(2, RoundingMode.HALF_DOWN), summary.totalAmount());
     }
+
+    @Test
+    void testIncrementIsEquivalentToBigDecimalFolding() {
+        Random random = new Random(42);
+        PaymentSummary summary = PaymentSummary.ZERO;
+        BigDecimal expected = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_DOWN);
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal amount = randomAmount(random, 1 + random.nextInt(4));
+            summary = summary.increment(Payment.of("corr-" + i, RemotePaymentName.DEFAULT, amount, Instant.now()));
+            expected = expected.add(amount).setScale(2, RoundingMode.HALF_DOWN);
+        }
+        assertEquals(100_000, summary.totalRequests());
+        assertEquals(expected, summary.totalAmount());
+    }
+
+    @Test
+    void testIncrementCollectionIsEquivalentToBigDecimalReduction() {
+        Random random = new Random(7);
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            payments.add(Payment.of("corr-" + i, RemotePaymentName.FALLBACK, randomAmount(random, 2), Instant.now()));
+        }
+        BigDecimal expected = payments.stream()
+                .map(Payment::amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_DOWN);
+
+        PaymentSummary summary = PaymentSummary.ZERO.increment(payments);
+
+        assertEquals(payments.size(), summary.totalRequests());
+        assertEquals(expected, summary.totalAmount());
+    }
+
+    @Test
+    void testIncrementCollectionRoundsEachAmountToCentsBeforeSumming() {
+        // each payment is rounded once when it is accepted, which is also the amount sent to the processor
+        List<Payment> halves = List.of(
+                Payment.of("corr-1", RemotePaymentName.DEFAULT, new BigDecimal("0.006"), Instant.now()),
+                Payment.of("corr-2", RemotePaymentName.DEFAULT, new BigDecimal("0.006"), Instant.now()));
+        assertEquals(new BigDecimal("0.02"), PaymentSummary.ZERO.increment(halves).totalAmount());
+
+        Random random = new Random(11);
+        List<Payment> payments = new ArrayList<>();
+        BigDecimal expected = BigDecimal.ZERO.setScale(2);
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal amount = randomAmount(random, 3 + random.nextInt(2));
+            payments.add(Payment.of("corr-" + i, RemotePaymentName.FALLBACK, amount, Instant.now()));
+            expected = expected.add(amount.setScale(2, RoundingMode.HALF_DOWN));
+        }
+
+        assertEquals(expected, PaymentSummary.ZERO.increment(payments).totalAmount());
+    }
+
+    @Test
+    void testAddIsEquivalentToBigDecimalAddition() {
+        PaymentSummary left = PaymentSummary.of(3, new BigDecimal("59.70"));
+        PaymentSummary right = PaymentSummary.of(2, new BigDecimal("0.05"));
+
+        PaymentSummary summary = left.add(right);
+
+        assertEquals(5, summary.totalRequests());
+        assertEquals(new BigDecimal("59.70").add(new BigDecimal("0.05")).setScale(2, RoundingMode.HALF_DOWN), summary.totalAmount());
+    }
+
+    @Test
+    void testJsonKeepsTheTotalAmountAsADecimalNumber() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        PaymentSummary summary = PaymentSummary.of(2, new BigDecimal("39.80"));
+
+        String json = objectMapper.writeValueAsString(summary);
+
+        assertEquals("{\"totalRequests\":2,\"totalAmount\":39.80}", json);
+        assertEquals(summary, objectMapper.readValue(json, PaymentSummary.class));
+    }
+
+    private static BigDecimal randomAmount(Random random, int scale) {
+        return BigDecimal.valueOf(random.nextLong(0, 10_000_000), scale);
+    }
 }
@@ -0,0 +1,105 @@
+package org.acme.domain;
+
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemotePaymentProcessorHealthMonitorTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(40);
+    private static final RemotePaymentProcessorHealth FAILING = new RemotePaymentProcessorHealth(true, 100);
+
+    @Test
+    void testThePeerFollowsTheSharedAnswerInsteadOfBeingThrottled() {
+        AtomicInteger calls = new AtomicInteger();
+        // like the processors, only the first call of an interval gets an answer
+        RemotePaymentProcessorHealthCheck processor = () -> calls.getAndIncrement() == 0
+                ? RestResponse.ok(FAILING)
+                : RestResponse.status(RestResponse.Status.TOO_MANY_REQUESTS);
+        RemotePaymentProcessorHealthMonitor[] monitors = new RemotePaymentProcessorHealthMonitor[2];
+        monitors[0] = monitor(processor, () -> monitors[1]);
+        monitors[1] = monitor(processor, () -> monitors[0]);
+
+        monitors[0].check(RemotePaymentName.DEFAULT);
+
+        assertEquals(FAILING, monitors[1].health(RemotePaymentName.DEFAULT));
+        assertTrue(monitors[1].nanosUntilNextCheck(RemotePaymentName.DEFAULT)
+                > monitors[0].nanosUntilNextCheck(RemotePaymentName.DEFAULT));
+
+        monitors[1].check(RemotePaymentName.DEFAULT);
+        assertEquals(FAILING, monitors[1].health(RemotePaymentName.DEFAULT));
+        assertEquals(RemotePaymentProcessorHealth.HEALTH, monitors[1].health(RemotePaymentName.FALLBACK));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testSharesAFailedCheck() {
+        RemotePaymentProcessorHealthCheck processor = () -> {
+            throw new IllegalStateException("connection refused");
+        };
+        RemotePaymentProcessorHealthMonitor[] monitors = new RemotePaymentProcessorHealthMonitor[2];
+        monitors[0] = monitor(processor, () -> monitors[1]);
+        monitors[1] = monitor(processor, () -> monitors[0]);
+
+        monitors[0].check(RemotePaymentName.FALLBACK);
+
+        assertEquals(RemotePaymentProcessorHealth.UNHEALTH, monitors[0].health(RemotePaymentName.FALLBACK));
+        assertEquals(RemotePaymentProcessorHealth.UNHEALTH, monitors[1].health(RemotePaymentName.FALLBACK));
+    }
+
+    @Test
+    void testChecksAgainOnceThePeerStopsSharing() throws InterruptedException {
+        RemotePaymentProcessorHealthMonitor monitor = monitor(() -> RestResponse.ok(FAILING), () -> null);
+
+        assertTrue(monitor.nanosUntilNextCheck(RemotePaymentName.DEFAULT) <= 0);
+        monitor.peerChecked(RemotePaymentName.DEFAULT, FAILING);
+        long postponed = monitor.nanosUntilNextCheck(RemotePaymentName.DEFAULT);
+        assertTrue(postponed > INTERVAL.toNanos() && postponed <= INTERVAL.toNanos() * 3 / 2, "postponed " + postponed);
+
+        Thread.sleep(INTERVAL.toMillis() * 3 / 2 + 5);
+        assertTrue(monitor.nanosUntilNextCheck(RemotePaymentName.DEFAULT) <= 0);
+    }
+
+    private static RemotePaymentProcessorHealthMonitor monitor(RemotePaymentProcessorHealthCheck processor,
+                                                               Supplier<RemotePaymentProcessorHealthMonitor> peer) {
+        return new RemotePaymentProcessorHealthMonitor(
+                Map.of(RemotePaymentName.DEFAULT, processor, RemotePaymentName.FALLBACK, processor),
+                new InternalPaymentsManagement() {
+                    @Override
+                    public PaymentsSummary getSummary(String fromStr, String toStr) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public long pushSummaryDeltas(byte[] batch) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public void shareProcessorHealth(RemotePaymentName processor, RemotePaymentProcessorHealth health) {
+                        RemotePaymentProcessorHealthMonitor monitor = peer.get();
+                        if (monitor == null) {
+                            throw new IllegalStateException("no peer");
+                        }
+                        monitor.peerChecked(processor, health);
+                    }
+
+                    @Override
+                    public void purgeInternalPayments() {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public String healthReadyCheck() {
+                        throw new UnsupportedOperationException();
+                    }
+                },
+                Map.of(RemotePaymentName.DEFAULT, INTERVAL, RemotePaymentName.FALLBACK, INTERVAL));
+    }
+}
@@ -0,0 +1,59 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.RemotePaymentName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentJournalTest {
+
+    @Test
+    void testRecoversCommittedPaymentsAfterReopening() throws IOException {
+        Path file = Files.createTempFile("payments-", ".journal");
+        try {
+            String correlationId = UUID.randomUUID().toString();
+            Instant createAt = Instant.parse("2025-07-15T12:34:56.789Z");
+            try (PaymentJournal journal = PaymentJournal.open(file, 4096)) {
+                journal.append(Payment.of(correlationId, RemotePaymentName.DEFAULT, 1990, createAt));
+                journal.append(Payment.of(UUID.randomUUID().toString(), RemotePaymentName.FALLBACK, 2000, createAt.plusMillis(1)));
+            }
+
+            try (PaymentJournal journal = PaymentJournal.open(file, 4096)) {
+                assertEquals(2, journal.size());
+                List<Payment> payments = new ArrayList<>();
+                journal.forEach((msb, lsb, processedBy, epochMillis, amountInCents) ->
+                        payments.add(Payment.of(new UUID(msb, lsb).toString(), processedBy, amountInCents, Instant.ofEpochMilli(epochMillis))));
+
+                assertEquals(Payment.of(correlationId, RemotePaymentName.DEFAULT, 1990, createAt), payments.get(0));
+                assertEquals(RemotePaymentName.FALLBACK, payments.get(1).processedBy());
+                assertEquals(2000, payments.get(1).amountInCents());
+
+                journal.append(Payment.of(UUID.randomUUID().toString(), RemotePaymentName.DEFAULT, 100, createAt));
+                assertEquals(3, journal.size());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testRejectsAppendsBeyondCapacity() throws IOException {
+        Path file = Files.createTempFile("payments-", ".journal");
+        try (PaymentJournal journal = PaymentJournal.open(file, 1)) {
+            journal.append(Payment.of(null, RemotePaymentName.DEFAULT, 100, Instant.EPOCH.plusMillis(1)));
+            assertThrows(IllegalStateException.class,
+                    () -> journal.append(Payment.of(null, RemotePaymentName.DEFAULT, 100, Instant.EPOCH.plusMillis(2))));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentLedgerTest {
+
+    @Test
+    void testAppendsAcrossChunkBoundaries() {
+        PaymentLedger ledger = new PaymentLedger(3);
+        int payments = 2 * PaymentLedger.CHUNK_SIZE + 5;
+        for (int i = 0; i < payments; i++) {
+            ledger.append(RemotePaymentName.values()[i % 2], i, 1);
+        }
+
+        assertEquals(payments, ledger.size());
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents((payments + 1) / 2, (payments + 1) / 2),
+                        PaymentSummary.ofCents(payments / 2, payments / 2)),
+                ledger.summarize(Long.MIN_VALUE, Long.MAX_VALUE));
+        // one payment on each side of the first boundary, then the whole second chunk and the first of the third
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(1, 1), PaymentSummary.ofCents(1, 1)),
+                ledger.summarize(PaymentLedger.CHUNK_SIZE - 1, PaymentLedger.CHUNK_SIZE));
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(PaymentLedger.CHUNK_SIZE / 2 + 1, PaymentLedger.CHUNK_SIZE / 2 + 1),
+                        PaymentSummary.ofCents(PaymentLedger.CHUNK_SIZE / 2, PaymentLedger.CHUNK_SIZE / 2)),
+                ledger.summarize(PaymentLedger.CHUNK_SIZE, 2L * PaymentLedger.CHUNK_SIZE));
+    }
+
+    @Test
+    void testRejectsPaymentsOnceFull() {
+        PaymentLedger ledger = new PaymentLedger(1);
+        for (int i = 0; i < PaymentLedger.CHUNK_SIZE; i++) {
+            ledger.append(RemotePaymentName.DEFAULT, 1_000, 10);
+        }
+
+        assertThrows(IllegalStateException.class, () -> ledger.append(RemotePaymentName.DEFAULT, 1_000, 10));
+        assertThrows(IllegalStateException.class, () -> ledger.append(RemotePaymentName.FALLBACK, 1_000, 10));
+        assertEquals(PaymentLedger.CHUNK_SIZE, ledger.size());
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(PaymentLedger.CHUNK_SIZE, 10L * PaymentLedger.CHUNK_SIZE), null),
+                ledger.summarize(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> new PaymentLedger(0));
+    }
+
+    @Test
+    void testRoundsSubMillisecondBoundsInward() {
+        Instant instant = Instant.ofEpochMilli(5_000);
+
+        assertEquals(5_000, PaymentLedger.fromEpochMillis(instant));
+        assertEquals(5_001, PaymentLedger.fromEpochMillis(instant.plusNanos(1)));
+        assertEquals(5_001, PaymentLedger.fromEpochMillis(instant.plusNanos(999_999)));
+        assertEquals(5_000, PaymentLedger.toEpochMillis(instant.plusNanos(999_999)));
+        assertEquals(Long.MIN_VALUE, PaymentLedger.fromEpochMillis(null));
+        assertEquals(Long.MAX_VALUE, PaymentLedger.toEpochMillis(null));
+    }
+
+    @Test
+    void testWindowedSumsMatchAPlainScan() {
+        SplittableRandom random = new SplittableRandom(19);
+        PaymentLedger ledger = new PaymentLedger(2);
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < PaymentLedger.CHUNK_SIZE + 1_000; i++) {
+            Payment payment = Payment.of(null, RemotePaymentName.values()[random.nextInt(2)],
+                    random.nextLong(1, 100_000), Instant.ofEpochMilli(random.nextLong(0, 2_000)));
+            payments.add(payment);
+            ledger.append(payment);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            Instant from = i % 10 == 0 ? null : Instant.ofEpochSecond(0, random.nextLong(0, 2_000_000_000L));
+            Instant to = i % 10 == 1 ? null : Instant.ofEpochSecond(0, random.nextLong(0, 2_000_000_000L));
+            PaymentsSummary expected = scan(payments, from, to);
+
+            assertEquals(expected, ledger.summarize(PaymentLedger.fromEpochMillis(from), PaymentLedger.toEpochMillis(to)),
+                    "window " + from + " - " + to);
+            assertEquals(expected, ledger.summarize(payment -> inWindow(payment, from, to)), "window " + from + " - " + to);
+
+            long[] counts = new long[2];
+            long[] cents = new long[2];
+            int resumeAt = ledger.accumulate(PaymentLedger.fromEpochMillis(from), PaymentLedger.toEpochMillis(to),
+                    0, counts, cents);
+            assertEquals(ledger.size(), resumeAt);
+            assertEquals(expected, PaymentLedger.toPaymentsSummary(counts, cents));
+        }
+    }
+
+    @Test
+    void testConcurrentAppendsAreAllPublished() throws Exception {
+        PaymentLedger ledger = new PaymentLedger(8);
+        int threads = 4;
+        int perThread = 20_000;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> appends = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                RemotePaymentName processor = RemotePaymentName.values()[t % 2];
+                appends.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ledger.append(processor, i, 3);
+                    }
+                }));
+            }
+            for (Future<?> append : appends) {
+                append.get();
+            }
+        }
+
+        long perProcessor = (long) perThread * threads / 2;
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents((int) perProcessor, 3 * perProcessor),
+                        PaymentSummary.ofCents((int) perProcessor, 3 * perProcessor)),
+                ledger.summarize(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    private static PaymentsSummary scan(List<Payment> payments, Instant from, Instant to) {
+        PaymentSummary defaultSummary = PaymentSummary.ZERO;
+        PaymentSummary fallbackSummary = PaymentSummary.ZERO;
+        for (Payment payment : payments) {
+            if (!inWindow(payment, from, to)) {
+                continue;
+            }
+            if (payment.processedBy() == RemotePaymentName.DEFAULT) {
+                defaultSummary = defaultSummary.increment(payment);
+            } else {
+                fallbackSummary = fallbackSummary.increment(payment);
+            }
+        }
+        return PaymentsSummary.of(defaultSummary, fallbackSummary);
+    }
+
+    private static boolean inWindow(Payment payment, Instant from, Instant to) {
+        return (from == null || !payment.createAt().isBefore(from)) && (to == null || !payment.createAt().isAfter(to));
+    }
+}
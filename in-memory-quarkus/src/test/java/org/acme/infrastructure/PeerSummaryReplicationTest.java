@@ -0,0 +1,175 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.InternalPaymentsManagement;
+import org.acme.domain.Payment;
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+import org.acme.domain.RemotePaymentProcessorHealth;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeerSummaryReplicationTest {
+
+    private static final Instant T0 = Instant.parse("2025-07-15T12:00:00Z");
+
+    @Test
+    void testReplicatesTheSummaryByTimeBucket() {
+        PeerSummaryReplication receiver = replication(null);
+        PeerSummaryReplication sender = replication(receiver::apply);
+
+        sender.publish(payment(RemotePaymentName.DEFAULT, 1990, T0));
+        sender.publish(payment(RemotePaymentName.DEFAULT, 10, T0));
+        sender.publish(payment(RemotePaymentName.FALLBACK, 500, T0.plusSeconds(10)));
+        sender.flush();
+
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(2, 2000), PaymentSummary.ofCents(1, 500)),
+                receiver.peerSummary(null, null));
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(2, 2000), PaymentSummary.ZERO),
+                receiver.peerSummary(T0, T0.plusSeconds(1)));
+        assertEquals(0, sender.unacked());
+    }
+
+    @Test
+    void testRetriesABatchWhoseAnswerWasLostWithoutCountingItTwice() {
+        PeerSummaryReplication receiver = replication(null);
+        boolean[] loseAnswer = {true};
+        PeerSummaryReplication sender = replication(batch -> {
+            long applied = receiver.apply(batch);
+            if (loseAnswer[0]) {
+                throw new IllegalStateException("read timeout");
+            }
+            return applied;
+        });
+
+        sender.publish(payment(RemotePaymentName.DEFAULT, 100, T0));
+        assertThrows(IllegalStateException.class, sender::flush);
+        assertEquals(1, sender.unacked());
+
+        loseAnswer[0] = false;
+        sender.publish(payment(RemotePaymentName.DEFAULT, 100, T0));
+        sender.flush();
+
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(2, 200), PaymentSummary.ZERO),
+                receiver.peerSummary(null, null));
+        assertEquals(0, sender.unacked());
+    }
+
+    @Test
+    void testSendsASnapshotToAPeerThatRestarted() {
+        PeerSummaryReplication[] receiver = {replication(null)};
+        List<byte[]> pushed = new ArrayList<>();
+        PeerSummaryReplication sender = replication(batch -> {
+            pushed.add(batch);
+            return receiver[0].apply(batch);
+        });
+
+        sender.publish(payment(RemotePaymentName.DEFAULT, 100, T0));
+        sender.flush();
+        sender.publish(payment(RemotePaymentName.FALLBACK, 300, T0));
+        sender.flush();
+        assertEquals(0, sender.unacked());
+
+        receiver[0] = replication(null);
+        pushed.clear();
+        sender.publish(payment(RemotePaymentName.DEFAULT, 100, T0));
+        sender.flush();
+
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(2, 200), PaymentSummary.ofCents(1, 300)),
+                receiver[0].peerSummary(null, null));
+        assertEquals(0, sender.unacked());
+        // the rejected batch, then one entry per bucket and processor rather than the three batches
+        assertEquals(2, pushed.size());
+        assertEquals(PeerSummaryReplication.HEADER_BYTES + 2 * PeerSummaryReplication.ENTRY_BYTES, pushed.get(1).length);
+
+        sender.publish(payment(RemotePaymentName.FALLBACK, 300, T0));
+        sender.flush();
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(2, 200), PaymentSummary.ofCents(2, 600)),
+                receiver[0].peerSummary(null, null));
+    }
+
+    @Test
+    void testPurgeStartsTheReplicaOverWithThePeersNextEpoch() {
+        PeerSummaryReplication receiver = replication(null);
+        PeerSummaryReplication sender = replication(receiver::apply);
+
+        sender.publish(payment(RemotePaymentName.DEFAULT, 100, T0));
+        sender.flush();
+        receiver.purge();
+        assertEquals(PaymentsSummary.ZERO, receiver.peerSummary(null, null));
+
+        sender.purge();
+        sender.publish(payment(RemotePaymentName.FALLBACK, 700, T0));
+        sender.flush();
+        assertEquals(PaymentsSummary.of(PaymentSummary.ZERO, PaymentSummary.ofCents(1, 700)),
+                receiver.peerSummary(null, null));
+        assertEquals(0, sender.unacked());
+    }
+
+    @Test
+    void testKeepsThePeersNewEpochWhenItPurgedAndPushedFirst() {
+        PeerSummaryReplication receiver = replication(null);
+        PeerSummaryReplication sender = replication(receiver::apply);
+
+        sender.publish(payment(RemotePaymentName.DEFAULT, 100, T0));
+        sender.flush();
+
+        sender.purge();
+        sender.publish(payment(RemotePaymentName.FALLBACK, 700, T0));
+        sender.flush();
+        receiver.purge();
+        assertEquals(PaymentsSummary.ZERO, receiver.peerSummary(null, null));
+
+        sender.publish(payment(RemotePaymentName.FALLBACK, 300, T0));
+        sender.flush();
+        assertEquals(PaymentsSummary.of(PaymentSummary.ZERO, PaymentSummary.ofCents(2, 1000)),
+                receiver.peerSummary(null, null));
+
+        sender.publish(payment(RemotePaymentName.DEFAULT, 50, T0));
+        sender.flush();
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(1, 50), PaymentSummary.ofCents(2, 1000)),
+                receiver.peerSummary(null, null));
+        assertEquals(0, sender.unacked());
+    }
+
+    private static PeerSummaryReplication replication(ToLongFunction<byte[]> push) {
+        return new PeerSummaryReplication(new InternalPaymentsManagement() {
+            @Override
+            public PaymentsSummary getSummary(String fromStr, String toStr) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public long pushSummaryDeltas(byte[] batch) {
+                return push.applyAsLong(batch);
+            }
+
+            @Override
+            public void shareProcessorHealth(RemotePaymentName processor, RemotePaymentProcessorHealth health) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void purgeInternalPayments() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String healthReadyCheck() {
+                throw new UnsupportedOperationException();
+            }
+        }, true, 1, Duration.ofMillis(5));
+    }
+
+    private static Payment payment(RemotePaymentName processedBy, long amountInCents, Instant createdAt) {
+        return Payment.of(UUID.randomUUID().toString(), processedBy, amountInCents, createdAt);
+    }
+}
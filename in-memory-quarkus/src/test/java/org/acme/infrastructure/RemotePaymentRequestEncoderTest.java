@@ -0,0 +1,48 @@
+package org.acme.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.acme.domain.RemotePaymentRequest;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemotePaymentRequestEncoderTest {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    @Test
+    void testEncodesTheSameJsonAsJackson() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        RemotePaymentRequest[] requests = {
+                new RemotePaymentRequest(UUID.randomUUID().toString(), 1990, Instant.parse("2025-07-15T12:34:56.789Z")),
+                new RemotePaymentRequest(UUID.randomUUID().toString(), 5, Instant.parse("2024-02-29T00:00:00Z")),
+                new RemotePaymentRequest("quote\"back\\slash", 100_000_00, Instant.parse("1999-12-31T23:59:59.999Z")),
+        };
+        for (RemotePaymentRequest request : requests) {
+            byte[] encoded = RemotePaymentRequestEncoder.encode(request);
+            assertEquals(mapper.readTree(mapper.writeValueAsString(request)), mapper.readTree(encoded));
+            assertEquals(request, mapper.readValue(encoded, RemotePaymentRequest.class));
+        }
+    }
+
+    @Test
+    void testFormatsTimestampsLikeTheJacksonPattern() {
+        SplittableRandom random = new SplittableRandom(42);
+        byte[] target = new byte[32];
+        for (int i = 0; i < 100_000; i++) {
+            long millis = random.nextLong(-62_135_596_800_000L, 253_402_300_800_000L);
+            int length = RemotePaymentRequestEncoder.putTimestamp(millis, target, 0);
+            assertEquals(TIMESTAMP.format(Instant.ofEpochMilli(millis)),
+                    new String(target, 0, length, StandardCharsets.US_ASCII), "millis " + millis);
+        }
+    }
+}
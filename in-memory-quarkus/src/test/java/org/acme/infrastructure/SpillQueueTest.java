@@ -0,0 +1,121 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.NewPaymentRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpillQueueTest {
+
+    @Test
+    void testKeepsArrivalOrderAcrossSegmentsAndDeletesDrainedOnes() throws IOException {
+        Path directory = Files.createTempDirectory("payments-spill");
+        try (SpillQueue queue = new SpillQueue(directory, 4, 10)) {
+            NewPaymentRequest[] requests = new NewPaymentRequest[10];
+            for (int i = 0; i < requests.length; i++) {
+                requests[i] = new NewPaymentRequest(UUID.randomUUID().toString(), 100 + i, i % 3, 42 + i);
+                assertTrue(queue.offer(requests[i]));
+            }
+            assertFalse(queue.offer(new NewPaymentRequest(UUID.randomUUID().toString(), 1)));
+            assertEquals(10, queue.size());
+            assertEquals(3, segments(directory));
+
+            for (int i = 0; i < 5; i++) {
+                assertEquals(requests[i], queue.poll());
+            }
+            assertEquals(2, segments(directory));
+            assertTrue(queue.offer(new NewPaymentRequest(UUID.randomUUID().toString(), 1)));
+
+            for (int i = 5; i < requests.length; i++) {
+                assertEquals(requests[i], queue.poll());
+            }
+            assertNotNull(queue.poll());
+            assertNull(queue.poll());
+            assertTrue(queue.isEmpty());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    void testRejectsCorrelationIdsThatDoNotFitARecord() throws IOException {
+        Path directory = Files.createTempDirectory("payments-spill");
+        try (SpillQueue queue = new SpillQueue(directory, 4, 10)) {
+            assertFalse(queue.offer(new NewPaymentRequest("not-a-uuid", 1)));
+            assertTrue(queue.isEmpty());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    void testRejectsARequestWhoseSegmentCannotBeMappedWithoutStallingTheOthers() throws IOException {
+        Path directory = Files.createTempDirectory("payments-spill");
+        try (SpillQueue queue = new SpillQueue(directory, 2, 10)) {
+            NewPaymentRequest first = new NewPaymentRequest(UUID.randomUUID().toString(), 100);
+            NewPaymentRequest second = new NewPaymentRequest(UUID.randomUUID().toString(), 200);
+            assertTrue(queue.offer(first));
+            assertTrue(queue.offer(second));
+
+            // the next segment would be created in a path that is no longer a directory
+            deleteRecursively(directory);
+            Files.createFile(directory);
+            assertFalse(queue.offer(new NewPaymentRequest(UUID.randomUUID().toString(), 300)));
+            assertEquals(2, queue.size());
+
+            Files.delete(directory);
+            Files.createDirectory(directory);
+            assertEquals(first, queue.poll());
+            assertEquals(second, queue.poll());
+            assertTrue(queue.isEmpty());
+
+            NewPaymentRequest third = new NewPaymentRequest(UUID.randomUUID().toString(), 300);
+            assertTrue(queue.offer(third));
+            assertEquals(third, queue.poll());
+            assertNull(queue.poll());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    void testClearDropsEveryPendingRequest() throws IOException {
+        Path directory = Files.createTempDirectory("payments-spill");
+        try (SpillQueue queue = new SpillQueue(directory, 4, 100)) {
+            for (int i = 0; i < 9; i++) {
+                queue.offer(new NewPaymentRequest(UUID.randomUUID().toString(), i));
+            }
+            queue.clear();
+            assertTrue(queue.isEmpty());
+            assertNull(queue.poll());
+            assertEquals(1, segments(directory));
+
+            NewPaymentRequest request = new NewPaymentRequest(UUID.randomUUID().toString(), 7);
+            assertTrue(queue.offer(request));
+            assertEquals(request, queue.poll());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static long segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+}
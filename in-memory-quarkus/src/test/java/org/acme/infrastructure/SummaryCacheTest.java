@@ -0,0 +1,79 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SummaryCacheTest {
+
+    @Test
+    void testFoldsTheNewPaymentsIntoACachedWindow() {
+        PaymentLedger ledger = new PaymentLedger(4);
+        SummaryCache cache = new SummaryCache(ledger, 8);
+        ledger.append(RemotePaymentName.DEFAULT, 1_000, 100);
+        ledger.append(RemotePaymentName.FALLBACK, 2_000, 50);
+
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(1, 100), PaymentSummary.ofCents(1, 50)),
+                cache.summarize(1_000, 2_000));
+
+        ledger.append(RemotePaymentName.DEFAULT, 1_500, 25);
+        ledger.append(RemotePaymentName.DEFAULT, 9_000, 1_000);
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(2, 125), PaymentSummary.ofCents(1, 50)),
+                cache.summarize(1_000, 2_000));
+        assertEquals(ledger.summarize(1_000, 2_000), cache.summarize(1_000, 2_000));
+    }
+
+    @Test
+    void testKeepsAWindowInThePastWhilePaymentsArriveAfterIt() {
+        PaymentLedger ledger = new PaymentLedger(4);
+        SummaryCache cache = new SummaryCache(ledger, 8);
+        ledger.append(RemotePaymentName.DEFAULT, 1_000, 100);
+        PaymentsSummary summary = cache.summarize(0, 1_999);
+
+        for (int i = 0; i < 1_000; i++) {
+            ledger.append(RemotePaymentName.DEFAULT, 2_000 + i, 100);
+        }
+        assertSame(summary, cache.summarize(0, 1_999));
+    }
+
+    @Test
+    void testEvictsAnEntryOnceFull() {
+        PaymentLedger ledger = new PaymentLedger(4);
+        SummaryCache cache = new SummaryCache(ledger, 2);
+        ledger.append(RemotePaymentName.DEFAULT, 1_000, 100);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(ledger.summarize(i, 1_000 + i), cache.summarize(i, 1_000 + i));
+        }
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testConcurrentIdenticalRequestsSeeEveryPaymentAppendedBeforeThem() throws Exception {
+        PaymentLedger ledger = new PaymentLedger(16);
+        SummaryCache cache = new SummaryCache(ledger, 8);
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int round = 0; round < 50; round++) {
+                for (int i = 0; i < 100; i++) {
+                    ledger.append(RemotePaymentName.values()[i % 2], 1_000 + i, i);
+                }
+                List<Future<PaymentsSummary>> summaries = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    summaries.add(executor.submit(() -> cache.summarize(1_000, 1_049)));
+                }
+                PaymentsSummary expected = ledger.summarize(1_000, 1_049);
+                for (Future<PaymentsSummary> summary : summaries) {
+                    assertEquals(expected, summary.get());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeBucketedSummaryIndexTest {
+
+    private record Added(RemotePaymentName processedBy, long epochMillis, long amountInCents) {
+    }
+
+    @Test
+    void testDoublesToCoverPaymentsFarToTheRight() {
+        TimeBucketedSummaryIndex index = new TimeBucketedSummaryIndex(1, 4, 1 << 12);
+        List<Added> added = new ArrayList<>();
+        for (long epochMillis : new long[]{0, 2, 3, 10, 100, 1_000, 4_000}) {
+            add(index, added, RemotePaymentName.values()[(int) (epochMillis % 2)], epochMillis, epochMillis + 1);
+        }
+
+        assertWindowsMatch(index, added, 1, new long[]{-1, 0, 1, 2, 3, 4, 9, 10, 99, 100, 999, 1_000, 3_999, 4_000, 5_000});
+    }
+
+    @Test
+    void testRebasesToCoverPaymentsToTheLeftOfTheFirstBucket() {
+        TimeBucketedSummaryIndex index = new TimeBucketedSummaryIndex(1, 4, 1 << 12);
+        List<Added> added = new ArrayList<>();
+        for (long epochMillis : new long[]{1_000, 999, 998, 990, 900, 0, -1_500, 1_003}) {
+            add(index, added, RemotePaymentName.values()[(int) Math.floorMod(epochMillis, 2)], epochMillis, 7);
+        }
+
+        assertWindowsMatch(index, added, 1,
+                new long[]{-1_501, -1_500, -1, 0, 1, 899, 900, 989, 990, 997, 998, 999, 1_000, 1_003, 1_004});
+    }
+
+    @Test
+    void testRandomPaymentsMatchABruteForceSum() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (long bucketMillis : new long[]{1, 10}) {
+            TimeBucketedSummaryIndex index = new TimeBucketedSummaryIndex(bucketMillis, 4, 1 << 16);
+            List<Added> added = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                add(index, added, RemotePaymentName.values()[random.nextInt(2)],
+                        random.nextLong(-20_000, 20_000), random.nextLong(1, 10_000));
+            }
+            for (int i = 0; i < 500; i++) {
+                long from = random.nextLong(-21_000, 21_000);
+                long to = from + random.nextLong(0, 10_000);
+                assertEquals(bruteForce(added, bucketMillis, from, to), index.summarize(from, to),
+                        "window " + from + " - " + to + " of " + bucketMillis + " ms buckets");
+            }
+            assertEquals(bruteForce(added, bucketMillis, Long.MIN_VALUE, Long.MAX_VALUE),
+                    index.summarize(Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void testFoldsTheOldestBucketsOnceAtMaxCapacity() {
+        TimeBucketedSummaryIndex index = new TimeBucketedSummaryIndex(1, 4, 16);
+        for (long epochMillis = 0; epochMillis < 16; epochMillis++) {
+            index.add(RemotePaymentName.DEFAULT, epochMillis, 1);
+        }
+        // slides the trees to [89, 104], folding every earlier bucket
+        index.add(RemotePaymentName.FALLBACK, 100, 10);
+        index.add(RemotePaymentName.DEFAULT, 95, 1);
+        // older than the trees, folded as well
+        index.add(RemotePaymentName.DEFAULT, 50, 1);
+
+        PaymentsSummary everything = PaymentsSummary.of(PaymentSummary.ofCents(18, 18), PaymentSummary.ofCents(1, 10));
+        assertEquals(everything, index.summarize(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(everything, index.summarize(0, 104));
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(1, 1), PaymentSummary.ofCents(1, 10)),
+                index.summarize(89, 104));
+        // only partly covers the folded buckets, so it has no exact answer
+        assertTrue(index.trySummarize(5, 104).isEmpty());
+        assertTrue(index.trySummarize(10, 20).isEmpty());
+        assertThrows(IllegalStateException.class, () -> index.summarize(5, 104));
+        assertEquals(Optional.of(everything), index.trySummarize(-10, 200));
+    }
+
+    @Test
+    void testFoldsAPaymentTooOldForTheMaxCapacity() {
+        TimeBucketedSummaryIndex index = new TimeBucketedSummaryIndex(1, 4, 16);
+        index.add(RemotePaymentName.DEFAULT, 100, 1);
+        index.add(RemotePaymentName.DEFAULT, 110, 1);
+        index.add(RemotePaymentName.FALLBACK, 90, 5);
+
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(2, 2), PaymentSummary.ofCents(1, 5)),
+                index.summarize(90, 114));
+        assertEquals(PaymentsSummary.of(PaymentSummary.ofCents(2, 2), PaymentSummary.ZERO),
+                index.summarize(95, 114));
+        // covers every folded bucket, which hold a single payment
+        assertEquals(PaymentsSummary.of(PaymentSummary.ZERO, PaymentSummary.ofCents(1, 5)), index.summarize(85, 94));
+    }
+
+    @Test
+    void testAnswersExactlyOrNotAtAllOnceFolded() {
+        SplittableRandom random = new SplittableRandom(5);
+        TimeBucketedSummaryIndex index = new TimeBucketedSummaryIndex(1, 4, 64);
+        List<Added> added = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            // mostly moving forward in time, with some stragglers
+            long epochMillis = i + random.nextLong(-80, 5);
+            add(index, added, RemotePaymentName.values()[random.nextInt(2)], epochMillis, random.nextLong(1, 100));
+        }
+        int exact = 0;
+        for (int i = 0; i < 2_000; i++) {
+            long from = random.nextLong(-100, 600);
+            long to = from + random.nextLong(0, 300);
+            Optional<PaymentsSummary> summary = index.trySummarize(from, to);
+            if (summary.isPresent()) {
+                exact++;
+                assertEquals(bruteForce(added, 1, from, to), summary.get(), "window " + from + " - " + to);
+            }
+        }
+        assertTrue(exact > 0);
+        assertEquals(bruteForce(added, 1, Long.MIN_VALUE, Long.MAX_VALUE), index.summarize(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void testRejectsInvalidCapacities() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeBucketedSummaryIndex(0));
+        assertThrows(IllegalArgumentException.class, () -> new TimeBucketedSummaryIndex(1, 3, 16));
+        assertThrows(IllegalArgumentException.class, () -> new TimeBucketedSummaryIndex(1, 16, 8));
+        assertThrows(IllegalArgumentException.class, () -> new TimeBucketedSummaryIndex(1, 4, 24));
+    }
+
+    private static void add(TimeBucketedSummaryIndex index, List<Added> added,
+                            RemotePaymentName processedBy, long epochMillis, long amountInCents) {
+        index.add(processedBy, epochMillis, amountInCents);
+        added.add(new Added(processedBy, epochMillis, amountInCents));
+    }
+
+    private static void assertWindowsMatch(TimeBucketedSummaryIndex index, List<Added> added, long bucketMillis, long[] bounds) {
+        for (long from : bounds) {
+            for (long to : bounds) {
+                assertEquals(bruteForce(added, bucketMillis, from, to), index.summarize(from, to),
+                        "window " + from + " - " + to);
+            }
+        }
+    }
+
+    private static PaymentsSummary bruteForce(List<Added> added, long bucketMillis, long from, long to) {
+        long[] counts = new long[2];
+        long[] cents = new long[2];
+        if (from <= to) {
+            long fromBucket = Math.floorDiv(from, bucketMillis);
+            long toBucket = Math.floorDiv(to, bucketMillis);
+            for (Added payment : added) {
+                long bucket = Math.floorDiv(payment.epochMillis(), bucketMillis);
+                if (bucket >= fromBucket && bucket <= toBucket) {
+                    counts[payment.processedBy().ordinal()]++;
+                    cents[payment.processedBy().ordinal()] += payment.amountInCents();
+                }
+            }
+        }
+        return PaymentLedger.toPaymentsSummary(counts, cents);
+    }
+}
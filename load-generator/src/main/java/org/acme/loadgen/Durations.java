@@ -0,0 +1,33 @@
+package org.acme.loadgen;
+
+import java.time.Duration;
+
+final class Durations {
+
+    private Durations() {
+    }
+
+    /**
+     * Reads {@code 250ms}, {@code 10s}, {@code 2m} or an ISO-8601 duration such as {@code PT0.5S}.
+     */
+    static Duration parse(String value) {
+        String text = value.trim();
+        try {
+            if (text.startsWith("P") || text.startsWith("p")) {
+                return Duration.parse(text);
+            }
+            if (text.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+            }
+            if (text.endsWith("s")) {
+                return Duration.ofMillis(Math.round(Double.parseDouble(text.substring(0, text.length() - 1)) * 1000));
+            }
+            if (text.endsWith("m")) {
+                return Duration.ofMillis(Math.round(Double.parseDouble(text.substring(0, text.length() - 1)) * 60_000));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid duration: " + value, e);
+        }
+        throw new IllegalArgumentException("Invalid duration, expected ms, s or m: " + value);
+    }
+}
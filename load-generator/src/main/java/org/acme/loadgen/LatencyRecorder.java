@@ -0,0 +1,64 @@
+package org.acme.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latency of the expected responses twice. The corrected histogram measures from the time the request
+ * was due by the schedule. This includes any time it waited behind a stalled sender. The uncorrected histogram
+ * measures from the time the request was actually sent, as a closed-loop client such as k6 does, which hides the
+ * requests that a slow server kept from being sent: coordinated omission.
+ */
+final class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Histogram corrected = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram uncorrected = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    void success(long dueNanos, long sentNanos, long completedNanos) {
+        succeeded.increment();
+        corrected.recordValue(micros(completedNanos - dueNanos));
+        uncorrected.recordValue(micros(completedNanos - sentNanos));
+    }
+
+    void failure() {
+        failed.increment();
+    }
+
+    long succeeded() {
+        return succeeded.sum();
+    }
+
+    long failed() {
+        return failed.sum();
+    }
+
+    /**
+     * The corrected latency at {@code percentile} (0 to 100), in milliseconds.
+     */
+    double correctedMillis(double percentile) {
+        return corrected.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * The uncorrected latency at {@code percentile} (0 to 100), in milliseconds.
+     */
+    double uncorrectedMillis(double percentile) {
+        return uncorrected.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxCorrectedMillis() {
+        return corrected.getMaxValue() / 1000.0;
+    }
+
+    private static long micros(long nanos) {
+        return Math.clamp(TimeUnit.NANOSECONDS.toMicros(nanos), 0, HIGHEST_TRACKABLE_MICROS);
+    }
+}
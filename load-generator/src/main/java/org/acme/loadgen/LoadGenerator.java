@@ -0,0 +1,300 @@
+package org.acme.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays {@code rinha-test/rinha.js} without k6. It runs the same scenarios:
+ * <ul>
+ *     <li>{@code payments}: 19.90 payments at a rate ramping from {@code start-rate} to {@code max-requests} per
+ *     second over {@code duration}</li>
+ *     <li>{@code checkPayments}: every 10 seconds, the backend summary of the last 10 seconds against the processors'
+ *     admin summaries</li>
+ *     <li>{@code define_stage}: the delay and failure stages switched on the processors</li>
+ * </ul>
+ * The payments are open-loop, sent at their scheduled time however slow the backend is. Their latency is measured
+ * from that time, which corrects the coordinated omission of a closed-loop client. At the end it prints and writes
+ * the same result as the k6 script, with the corrected p99, plus the throughput and the uncorrected percentiles:
+ * <pre>
+ * java -jar target/load-generator-1.0.0-SNAPSHOT.jar --max-requests=550 --participant=me
+ * </pre>
+ * Options, all {@code --name=value}: {@code backend} (http://localhost:9999), {@code default-processor}
+ * (http://localhost:8001), {@code fallback-processor} (http://localhost:8002), {@code token} (123),
+ * {@code max-requests} (500), {@code start-rate} (1), {@code duration} (60s), {@code timeout} (1500ms),
+ * {@code stages} ({@code rinha} or {@code none}, to leave the processors to a simulator scenario),
+ * {@code participant} (anonymous) and {@code output} (partial-results.json).
+ */
+public final class LoadGenerator {
+
+    private static final System.Logger LOGGER = System.getLogger(LoadGenerator.class.getName());
+    private static final BigDecimal PAYMENT_AMOUNT = new BigDecimal("19.90");
+    private static final Set<Integer> EXPECTED_STATUSES = Set.of(200, 201, 202, 204);
+    private static final Duration CONSISTENCY_INTERVAL = Duration.ofSeconds(10);
+    private static final Duration CONSISTENCY_WINDOW = Duration.ofSeconds(10);
+    private static final Duration CONSISTENCY_LAG = Duration.ofMillis(100);
+    private static final Duration SUMMARY_WINDOW = Duration.ofSeconds(70);
+
+    private final RinhaClient client;
+    private final RampingRateSchedule schedule;
+    private final List<ProcessorStage> stages;
+    private final Duration timeout;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final DoubleAdder inconsistency = new DoubleAdder();
+    private final AtomicReference<RuntimeException> aborted = new AtomicReference<>();
+
+    record Result(LatencyRecorder recorder,
+                  Duration elapsed,
+                  double inconsistency,
+                  Summaries.BackendSummary backendSummary,
+                  Summaries.ProcessorSummary defaultSummary,
+                  Summaries.ProcessorSummary fallbackSummary) {
+
+        Score score() {
+            double defaultAmount = backendSummary.defaultTotals().totalAmount().doubleValue();
+            double fallbackAmount = backendSummary.fallbackTotals().totalAmount().doubleValue();
+            return new Score(defaultAmount + fallbackAmount,
+                    defaultSummary.feePerTransaction().doubleValue() * defaultAmount,
+                    fallbackSummary.feePerTransaction().doubleValue() * fallbackAmount,
+                    recorder.correctedMillis(99),
+                    inconsistency);
+        }
+
+        double throughput() {
+            return recorder.succeeded() / (elapsed.toNanos() / 1_000_000_000.0);
+        }
+    }
+
+    LoadGenerator(RinhaClient client, RampingRateSchedule schedule, List<ProcessorStage> stages, Duration timeout) {
+        this.client = client;
+        this.schedule = schedule;
+        this.stages = stages;
+        this.timeout = timeout;
+    }
+
+    Result run() throws InterruptedException {
+        for (Processor processor : Processor.values()) {
+            client.purgeProcessor(processor);
+        }
+        client.purgeBackend();
+        for (Processor processor : Processor.values()) {
+            client.setToken(processor);
+        }
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2,
+                Thread.ofPlatform().name("load-generator-scheduler-", 0).daemon().factory());
+        List<CompletableFuture<Void>> payments = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (ProcessorStage stage : stages) {
+                scheduler.schedule(() -> defineStage(stage), stage.at().toNanos(), TimeUnit.NANOSECONDS);
+            }
+            scheduler.scheduleWithFixedDelay(this::checkPayments, 0, CONSISTENCY_INTERVAL.toNanos(), TimeUnit.NANOSECONDS);
+
+            long requests = schedule.requests();
+            for (long n = 0; n < requests && aborted.get() == null; n++) {
+                long due = start + schedule.offsetNanos(n);
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                payments.add(sendPayment(due));
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+        try {
+            // every request times out on its own, this only guards against a stuck client
+            CompletableFuture.allOf(payments.toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis() + 5_000, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Some payments were still in flight at the end of the test");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        if (aborted.get() != null) {
+            throw aborted.get();
+        }
+
+        Instant to = Instant.now();
+        Instant from = to.minus(SUMMARY_WINDOW);
+        return new Result(recorder, elapsed, inconsistency.sum(),
+                client.backendSummary(from, to),
+                client.processorSummary(Processor.DEFAULT, from, to),
+                client.processorSummary(Processor.FALLBACK, from, to));
+    }
+
+    private CompletableFuture<Void> sendPayment(long due) {
+        long sent = System.nanoTime();
+        return client.requestPayment(UUID.randomUUID(), PAYMENT_AMOUNT)
+                .handle((status, error) -> {
+                    if (error == null && EXPECTED_STATUSES.contains(status)) {
+                        recorder.success(due, sent, System.nanoTime());
+                    } else {
+                        recorder.failure();
+                    }
+                    return null;
+                });
+    }
+
+    private void defineStage(ProcessorStage stage) {
+        try {
+            for (Processor processor : Processor.values()) {
+                client.setDelay(processor, stage.delayMillis(processor));
+            }
+            for (Processor processor : Processor.values()) {
+                client.setFailure(processor, stage.failure(processor));
+            }
+        } catch (RuntimeException e) {
+            aborted.compareAndSet(null, e);
+        }
+    }
+
+    private void checkPayments() {
+        Instant now = Instant.now();
+        Instant from = now.minus(CONSISTENCY_WINDOW);
+        Instant to = now.minus(CONSISTENCY_LAG);
+        try {
+            Summaries.ProcessorSummary defaultSummary = client.processorSummary(Processor.DEFAULT, from, to);
+            Summaries.ProcessorSummary fallbackSummary = client.processorSummary(Processor.FALLBACK, from, to);
+            Summaries.BackendSummary backendSummary = client.backendSummary(from, to);
+            inconsistency.add(backendSummary.defaultTotals().totalAmount().subtract(defaultSummary.totalAmount()).abs()
+                    .add(backendSummary.fallbackTotals().totalAmount().subtract(fallbackSummary.totalAmount()).abs())
+                    .doubleValue());
+        } catch (RuntimeException e) {
+            // like a failed k6 iteration, skips this check only: an exception would cancel every later one
+            LOGGER.log(System.Logger.Level.WARNING, "Could not check the payments between " + from + " and " + to, e);
+        }
+    }
+
+    /**
+     * The result of the k6 script's {@code handleSummary}, with the corrected p99 and a {@code carga} section for
+     * what k6 does not report.
+     */
+    static Map<String, Object> partialResults(Result result, String participant, long maxRequests) {
+        Score score = result.score();
+        Summaries.BackendSummary backend = result.backendSummary();
+        long succeeded = result.recorder().succeeded();
+        long processed = backend.defaultTotals().totalRequests() + backend.fallbackTotals().totalRequests();
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("participante", participant);
+        results.put("total_liquido", score.liquidAmount());
+        results.put("total_bruto", score.totalAmount());
+        results.put("total_taxas", score.totalFee());
+        results.put("descricao", "'total_liquido' é sua pontuação final. Equivale ao seu lucro. Fórmula: total_liquido + (total_liquido * p99.bonus) - (total_liquido * multa.porcentagem)");
+        results.put("p99", section(
+                "valor", result.recorder().correctedMillis(99) + "ms",
+                "bonus", score.p99Bonus(),
+                "max_requests", String.valueOf(maxRequests),
+                "descricao", "Fórmula para o bônus: max((11 - p99.valor) * 0.02, 0)"));
+        results.put("multa", section(
+                "porcentagem", score.finePercentage(),
+                "total", score.fine(),
+                "composicao", section(
+                        "total_inconsistencias", result.inconsistency(),
+                        "descricao", "Se 'total_inconsistencias' > 0, há multa de 35%.")));
+        results.put("lag", section(
+                "num_pagamentos_total", processed,
+                "num_pagamentos_solicitados", succeeded,
+                "lag", succeeded - processed,
+                "descricao", "Lag é a diferença entre a quantidade de solicitações de pagamentos vs o que foi realmente computado pelo backend. Mostra a perda de pagamentos possivelmente por estarem enfileirados."));
+        results.put("pagamentos_solicitados", section(
+                "qtd_sucesso", succeeded,
+                "qtd_falha", result.recorder().failed(),
+                "descricao", "'qtd_sucesso' foram requests bem sucedidos para 'POST /payments' e 'qtd_falha' os requests com erro."));
+        results.put("pagamentos_realizados_default", section(
+                "total_bruto", backend.defaultTotals().totalAmount(),
+                "num_pagamentos", backend.defaultTotals().totalRequests(),
+                "total_taxas", score.defaultFee(),
+                "descricao", "Informações do backend sobre solicitações de pagamento para o Payment Processor Default."));
+        results.put("pagamentos_realizados_fallback", section(
+                "total_bruto", backend.fallbackTotals().totalAmount(),
+                "num_pagamentos", backend.fallbackTotals().totalRequests(),
+                "total_taxas", score.fallbackFee(),
+                "descricao", "Informações do backend sobre solicitações de pagamento para o Payment Processor Fallback."));
+        results.put("carga", section(
+                "requisicoes_por_segundo", result.throughput(),
+                "duracao", result.elapsed().toMillis() / 1000.0 + "s",
+                "p50", result.recorder().correctedMillis(50) + "ms",
+                "p99_sem_correcao", result.recorder().uncorrectedMillis(99) + "ms",
+                "max", result.recorder().maxCorrectedMillis() + "ms",
+                "descricao", "Latências medidas a partir do horário agendado de cada requisição, corrigindo a omissão coordenada; 'p99_sem_correcao' mede a partir do envio, como o k6."));
+        return results;
+    }
+
+    private static Map<String, Object> section(Object... entries) {
+        Map<String, Object> section = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            section.put((String) entries[i], entries[i + 1]);
+        }
+        return section;
+    }
+
+    static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --<name>=<value>, got " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = options(args);
+        long maxRequests = Long.parseLong(options.getOrDefault("max-requests", "500"));
+        Duration timeout = Durations.parse(options.getOrDefault("timeout", "1500ms"));
+        List<ProcessorStage> stages = switch (options.getOrDefault("stages", "rinha")) {
+            case "rinha" -> ProcessorStage.RINHA;
+            case "none" -> List.of();
+            default -> throw new IllegalArgumentException("Unknown stages, expected rinha or none: " + options.get("stages"));
+        };
+        RinhaClient client = new RinhaClient(
+                URI.create(options.getOrDefault("backend", "http://localhost:9999")),
+                URI.create(options.getOrDefault("default-processor", "http://localhost:8001")),
+                URI.create(options.getOrDefault("fallback-processor", "http://localhost:8002")),
+                options.getOrDefault("token", "123"),
+                timeout);
+        RampingRateSchedule schedule = new RampingRateSchedule(
+                Double.parseDouble(options.getOrDefault("start-rate", "1")),
+                maxRequests,
+                Durations.parse(options.getOrDefault("duration", "60s")));
+
+        LOGGER.log(System.Logger.Level.INFO, "Sending {0} payments, ramping from {1} to {2} per second over {3}",
+                schedule.requests(), schedule.startRate(), schedule.targetRate(), schedule.duration());
+        Result result = new LoadGenerator(client, schedule, stages, timeout).run();
+
+        Map<String, Object> partialResults = partialResults(result, options.getOrDefault("participant", "anonymous"), maxRequests);
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Path output = Path.of(options.getOrDefault("output", "partial-results.json"));
+        objectMapper.writeValue(output.toFile(), partialResults);
+        System.out.println(objectMapper.writeValueAsString(partialResults));
+        LOGGER.log(System.Logger.Level.INFO, "Results written to {0}", output.toAbsolutePath());
+    }
+}
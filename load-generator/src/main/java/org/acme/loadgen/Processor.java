@@ -0,0 +1,15 @@
+package org.acme.loadgen;
+
+enum Processor {
+    DEFAULT("default"), FALLBACK("fallback");
+
+    private final String value;
+
+    Processor(String value) {
+        this.value = value;
+    }
+
+    String value() {
+        return value;
+    }
+}
@@ -0,0 +1,27 @@
+package org.acme.loadgen;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The delay and failure set on both processors at {@code at} from the start of the test, the
+ * {@code define_stage} scenarios of {@code rinha.js}.
+ */
+record ProcessorStage(Duration at, long defaultDelayMillis, boolean defaultFailure, long fallbackDelayMillis, boolean fallbackFailure) {
+
+    static final List<ProcessorStage> RINHA = List.of(
+            new ProcessorStage(Duration.ofSeconds(1), 0, false, 0, false),
+            new ProcessorStage(Duration.ofSeconds(10), 100, false, 0, false),
+            new ProcessorStage(Duration.ofSeconds(20), 100, true, 0, false),
+            new ProcessorStage(Duration.ofSeconds(30), 2000, true, 1000, true),
+            new ProcessorStage(Duration.ofSeconds(40), 20, false, 20, false),
+            new ProcessorStage(Duration.ofSeconds(50), 0, false, 5000, false));
+
+    long delayMillis(Processor processor) {
+        return processor == Processor.DEFAULT ? defaultDelayMillis : fallbackDelayMillis;
+    }
+
+    boolean failure(Processor processor) {
+        return processor == Processor.DEFAULT ? defaultFailure : fallbackFailure;
+    }
+}
@@ -0,0 +1,45 @@
+package org.acme.loadgen;
+
+import java.time.Duration;
+
+/**
+ * An open-loop arrival schedule whose rate ramps linearly from {@code startRate} to {@code targetRate} requests per
+ * second over {@code duration}. It stands in for the k6 {@code ramping-vus} stage of {@code rinha.js}, where each
+ * virtual user sends a payment and sleeps for a second, so {@code n} users offer about {@code n} requests a second.
+ * Unlike those users, the requests are sent at their scheduled time whether or not the earlier ones were answered.
+ */
+record RampingRateSchedule(double startRate, double targetRate, Duration duration) {
+
+    RampingRateSchedule {
+        if (startRate < 0 || targetRate < 0 || startRate + targetRate == 0) {
+            throw new IllegalArgumentException("The rates must not be negative and one of them must be positive");
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("The duration must be positive: " + duration);
+        }
+    }
+
+    /**
+     * The number of requests in the schedule, the integral of the rate over the duration.
+     */
+    long requests() {
+        return (long) Math.floor((startRate + targetRate) / 2 * seconds());
+    }
+
+    /**
+     * The time at which request {@code n} (counted from 0) is due, relative to the start of the schedule: the time
+     * at which the integral of the rate reaches {@code n}.
+     */
+    long offsetNanos(long n) {
+        // n = startRate * t + (targetRate - startRate) / (2 * duration) * t^2
+        double halfSlope = (targetRate - startRate) / (2 * seconds());
+        double offsetSeconds = halfSlope == 0
+                ? n / startRate
+                : (-startRate + Math.sqrt(startRate * startRate + 4 * halfSlope * n)) / (2 * halfSlope);
+        return Math.round(offsetSeconds * 1_000_000_000);
+    }
+
+    private double seconds() {
+        return duration.toNanos() / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,161 @@
+package org.acme.loadgen;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The HTTP calls of {@code rinha-test/requests.js}: the payments and summaries of the backend, and the admin
+ * endpoints of the processors, authenticated with {@code X-Rinha-Token}. Setup calls that fail abort the test with
+ * an {@link IllegalStateException}; summaries that cannot be read count as empty, as in the k6 script.
+ */
+final class RinhaClient {
+
+    private static final System.Logger LOGGER = System.getLogger(RinhaClient.class.getName());
+    private static final String INITIAL_TOKEN = "123";
+    private static final String TOKEN_HEADER = "X-Rinha-Token";
+    private static final DateTimeFormatter ISO_MILLIS = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final URI backend;
+    private final Map<Processor, URI> processors = new EnumMap<>(Processor.class);
+    private final String token;
+    private final Duration timeout;
+
+    RinhaClient(URI backend, URI defaultProcessor, URI fallbackProcessor, String token, Duration timeout) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.backend = backend;
+        this.processors.put(Processor.DEFAULT, defaultProcessor);
+        this.processors.put(Processor.FALLBACK, fallbackProcessor);
+        this.token = token;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sends a payment to the backend; the future completes with the status code, or exceptionally on a timeout or
+     * a connection error.
+     */
+    CompletableFuture<Integer> requestPayment(UUID correlationId, BigDecimal amount) {
+        String body = "{\"correlationId\":\"" + correlationId + "\",\"amount\":" + amount.toPlainString() + "}";
+        return http.sendAsync(request(backend.resolve("/payments"))
+                                .POST(HttpRequest.BodyPublishers.ofString(body))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding())
+                .thenApply(HttpResponse::statusCode);
+    }
+
+    Summaries.BackendSummary backendSummary(Instant from, Instant to) {
+        try {
+            HttpResponse<byte[]> response = send(request(backend.resolve(summaryPath("/payments-summary", from, to))).GET());
+            if (response.statusCode() == 200) {
+                return objectMapper.readValue(response.body(), Summaries.BackendSummary.class);
+            }
+            LOGGER.log(System.Logger.Level.ERROR, "Could not read the backend summary (HTTP {0})", response.statusCode());
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.ERROR, "Could not read the backend summary: {0}", e.getMessage());
+        }
+        return Summaries.BackendSummary.EMPTY;
+    }
+
+    Summaries.ProcessorSummary processorSummary(Processor processor, Instant from, Instant to) {
+        try {
+            HttpResponse<byte[]> response = send(adminRequest(processor, summaryPath("/admin/payments-summary", from, to), token).GET());
+            if (response.statusCode() == 200) {
+                return objectMapper.readValue(response.body(), Summaries.ProcessorSummary.class);
+            }
+            LOGGER.log(System.Logger.Level.ERROR, "Could not read the {0} processor summary (HTTP {1})",
+                    processor.value(), response.statusCode());
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.ERROR, "Could not read the {0} processor summary: {1}",
+                    processor.value(), e.getMessage());
+        }
+        return Summaries.ProcessorSummary.EMPTY;
+    }
+
+    void purgeProcessor(Processor processor) {
+        expect(200, "purge the " + processor.value() + " processor payments",
+                adminRequest(processor, "/admin/purge-payments", token).POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    void purgeBackend() {
+        try {
+            send(request(backend.resolve("/purge-payments")).POST(HttpRequest.BodyPublishers.noBody()));
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.INFO, "The backend could not be purged, it probably has no purge endpoint: {0}",
+                    e.getMessage());
+        }
+    }
+
+    void setToken(Processor processor) {
+        expect(204, "set the " + processor.value() + " processor token",
+                adminRequest(processor, "/admin/configurations/token", INITIAL_TOKEN)
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"token\":\"" + token + "\"}")));
+    }
+
+    void setDelay(Processor processor, long delayMillis) {
+        expect(200, "set the " + processor.value() + " processor delay",
+                adminRequest(processor, "/admin/configurations/delay", token)
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"delay\":" + delayMillis + "}")));
+    }
+
+    void setFailure(Processor processor, boolean failure) {
+        expect(200, "set the " + processor.value() + " processor failure",
+                adminRequest(processor, "/admin/configurations/failure", token)
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"failure\":" + failure + "}")));
+    }
+
+    private void expect(int status, String action, HttpRequest.Builder request) {
+        int actual;
+        try {
+            actual = send(request).statusCode();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not " + action + ": " + e.getMessage(), e);
+        }
+        if (actual != status) {
+            throw new IllegalStateException("Could not " + action + " (HTTP " + actual + ")");
+        }
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws IOException {
+        try {
+            return http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.Builder adminRequest(Processor processor, String path, String token) {
+        return request(processors.get(processor).resolve(path)).header(TOKEN_HEADER, token);
+    }
+
+    private static String summaryPath(String path, Instant from, Instant to) {
+        return path + "?from=" + ISO_MILLIS.format(from) + "&to=" + ISO_MILLIS.format(to);
+    }
+}
@@ -0,0 +1,37 @@
+package org.acme.loadgen;
+
+/**
+ * The official score of {@code rinha.js}: the amount the backend reports as processed minus the processor fees,
+ * plus a bonus of 2% per millisecond the p99 stays under 11 ms, minus a 35% fine when any consistency check found a
+ * difference between the backend and the processors.
+ */
+record Score(double totalAmount, double defaultFee, double fallbackFee, double p99Millis, double inconsistency) {
+
+    static final double P99_BONUS_LIMIT_MILLIS = 11;
+    static final double P99_BONUS_PER_MILLI = 0.02;
+    static final double INCONSISTENCY_FINE = 0.35;
+
+    double totalFee() {
+        return defaultFee + fallbackFee;
+    }
+
+    double p99Bonus() {
+        return Math.max((P99_BONUS_LIMIT_MILLIS - p99Millis) * P99_BONUS_PER_MILLI, 0);
+    }
+
+    double finePercentage() {
+        return inconsistency != 0 ? INCONSISTENCY_FINE : 0;
+    }
+
+    double partialAmount() {
+        return totalAmount - totalFee();
+    }
+
+    double fine() {
+        return partialAmount() * finePercentage();
+    }
+
+    double liquidAmount() {
+        return partialAmount() + partialAmount() * p99Bonus() - fine();
+    }
+}
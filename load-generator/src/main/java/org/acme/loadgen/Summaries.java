@@ -0,0 +1,36 @@
+package org.acme.loadgen;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+final class Summaries {
+
+    private Summaries() {
+    }
+
+    /**
+     * The body of {@code GET /admin/payments-summary} on a payment processor.
+     */
+    record ProcessorSummary(long totalRequests, BigDecimal totalAmount, BigDecimal totalFee, BigDecimal feePerTransaction) {
+
+        static final ProcessorSummary EMPTY = new ProcessorSummary(0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    record Totals(long totalRequests, BigDecimal totalAmount) {
+
+        static final Totals EMPTY = new Totals(0, BigDecimal.ZERO);
+    }
+
+    /**
+     * The body of {@code GET /payments-summary} on the backend.
+     */
+    record BackendSummary(@JsonProperty("default") Totals defaultTotals, @JsonProperty("fallback") Totals fallbackTotals) {
+
+        static final BackendSummary EMPTY = new BackendSummary(Totals.EMPTY, Totals.EMPTY);
+
+        Totals totals(Processor processor) {
+            return processor == Processor.DEFAULT ? defaultTotals : fallbackTotals;
+        }
+    }
+}
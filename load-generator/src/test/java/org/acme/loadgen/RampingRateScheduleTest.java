@@ -0,0 +1,52 @@
+package org.acme.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RampingRateScheduleTest {
+
+    @Test
+    void testRequestsAreTheIntegralOfTheRate() {
+        assertEquals(15_030, new RampingRateSchedule(1, 500, Duration.ofSeconds(60)).requests());
+        assertEquals(600, new RampingRateSchedule(10, 10, Duration.ofSeconds(60)).requests());
+    }
+
+    @Test
+    void testOffsetsRampUpToTheDuration() {
+        RampingRateSchedule schedule = new RampingRateSchedule(1, 500, Duration.ofSeconds(60));
+
+        assertEquals(0, schedule.offsetNanos(0));
+        long previousGap = Long.MAX_VALUE;
+        long previous = 0;
+        for (long n = 1; n < schedule.requests(); n++) {
+            long offset = schedule.offsetNanos(n);
+            assertTrue(offset > previous, "request " + n + " is due after request " + (n - 1));
+            assertTrue(offset - previous <= previousGap, "the gaps shrink as the rate ramps up");
+            previousGap = offset - previous;
+            previous = offset;
+        }
+        assertTrue(previous <= Duration.ofSeconds(60).toNanos());
+        assertTrue(previous > Duration.ofSeconds(59).toNanos());
+        // 1 + 499 / 120 payments are offered over the first second
+        assertEquals(1_000_000_000, schedule.offsetNanos(5), 50_000_000);
+    }
+
+    @Test
+    void testConstantRateIsEvenlySpaced() {
+        RampingRateSchedule schedule = new RampingRateSchedule(4, 4, Duration.ofSeconds(10));
+
+        assertEquals(40, schedule.requests());
+        assertEquals(250_000_000, schedule.offsetNanos(1));
+        assertEquals(9_750_000_000L, schedule.offsetNanos(39));
+    }
+
+    @Test
+    void testRejectsInvalidSchedules() {
+        assertThrows(IllegalArgumentException.class, () -> new RampingRateSchedule(0, 0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new RampingRateSchedule(-1, 10, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new RampingRateSchedule(1, 10, Duration.ZERO));
+    }
+}
@@ -0,0 +1,35 @@
+package org.acme.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreTest {
+
+    @Test
+    void testNoBonusNorFineAboveElevenMilliseconds() {
+        Score score = new Score(201_348.2, 9_567.41, 1_046.85, 1003, 0);
+
+        assertEquals(10_614.26, score.totalFee(), 0.001);
+        assertEquals(0, score.p99Bonus(), 0);
+        assertEquals(0, score.fine(), 0);
+        assertEquals(190_733.94, score.liquidAmount(), 0.001);
+    }
+
+    @Test
+    void testBonusOfTwoPercentPerMillisecondUnderEleven() {
+        Score score = new Score(1_000, 50, 0, 1, 0);
+
+        assertEquals(0.2, score.p99Bonus(), 1e-9);
+        assertEquals(1_140, score.liquidAmount(), 1e-9);
+    }
+
+    @Test
+    void testAnyInconsistencyIsFined() {
+        Score score = new Score(1_000, 50, 0, 11, 19.9);
+
+        assertEquals(0.35, score.finePercentage(), 0);
+        assertEquals(332.5, score.fine(), 1e-9);
+        assertEquals(617.5, score.liquidAmount(), 1e-9);
+    }
+}
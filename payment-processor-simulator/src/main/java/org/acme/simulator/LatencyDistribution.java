@@ -0,0 +1,138 @@
+package org.acme.simulator;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The extra response time of a simulated processor on top of its admin {@code delay}, written as
+ * {@code <kind>:<parameters>}:
+ * <pre>
+ * constant:5          always 5 ms
+ * uniform:5-20        between 5 and 20 ms
+ * exponential:10      exponential with a 10 ms mean
+ * normal:20,5         normal with a 20 ms mean and a 5 ms standard deviation, cut at 0
+ * lognormal:10,0.5    log-normal with a 10 ms median and a 0.5 sigma, a long right tail
+ * </pre>
+ */
+public sealed interface LatencyDistribution {
+
+    LatencyDistribution NONE = new Constant(0);
+
+    long sampleMillis(RandomGenerator random);
+
+    record Constant(long millis) implements LatencyDistribution {
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return "constant:" + millis;
+        }
+    }
+
+    record Uniform(long minMillis, long maxMillis) implements LatencyDistribution {
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return minMillis == maxMillis ? minMillis : random.nextLong(minMillis, maxMillis + 1);
+        }
+
+        @Override
+        public String toString() {
+            return "uniform:" + minMillis + "-" + maxMillis;
+        }
+    }
+
+    record Exponential(double meanMillis) implements LatencyDistribution {
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return Math.round(meanMillis * random.nextExponential());
+        }
+
+        @Override
+        public String toString() {
+            return "exponential:" + meanMillis;
+        }
+    }
+
+    record Normal(double meanMillis, double stddevMillis) implements LatencyDistribution {
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return Math.max(0, Math.round(random.nextGaussian(meanMillis, stddevMillis)));
+        }
+
+        @Override
+        public String toString() {
+            return "normal:" + meanMillis + "," + stddevMillis;
+        }
+    }
+
+    record LogNormal(double medianMillis, double sigma) implements LatencyDistribution {
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+        }
+
+        @Override
+        public String toString() {
+            return "lognormal:" + medianMillis + "," + sigma;
+        }
+    }
+
+    static LatencyDistribution parse(String spec) {
+        int colon = spec.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Latency distribution without parameters: " + spec);
+        }
+        String kind = spec.substring(0, colon).trim();
+        String parameters = spec.substring(colon + 1).trim();
+        try {
+            return switch (kind) {
+                case "constant" -> new Constant(nonNegative(Long.parseLong(parameters), spec));
+                case "uniform" -> {
+                    String[] bounds = parameters.split("-", 2);
+                    long min = nonNegative(Long.parseLong(bounds[0].trim()), spec);
+                    long max = nonNegative(Long.parseLong(bounds[bounds.length - 1].trim()), spec);
+                    if (max < min) {
+                        throw new IllegalArgumentException("Latency distribution with max < min: " + spec);
+                    }
+                    yield new Uniform(min, max);
+                }
+                case "exponential" -> new Exponential(nonNegative(Double.parseDouble(parameters), spec));
+                case "normal" -> {
+                    double[] values = pair(parameters, spec);
+                    yield new Normal(values[0], nonNegative(values[1], spec));
+                }
+                case "lognormal" -> {
+                    double[] values = pair(parameters, spec);
+                    yield new LogNormal(nonNegative(values[0], spec), nonNegative(values[1], spec));
+                }
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid latency distribution: " + spec, e);
+        }
+    }
+
+    private static double[] pair(String parameters, String spec) {
+        String[] values = parameters.split(",");
+        if (values.length != 2) {
+            throw new IllegalArgumentException("Latency distribution needs two parameters: " + spec);
+        }
+        return new double[]{Double.parseDouble(values[0].trim()), Double.parseDouble(values[1].trim())};
+    }
+
+    private static long nonNegative(long value, String spec) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative latency: " + spec);
+        }
+        return value;
+    }
+
+    private static double nonNegative(double value, String spec) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative latency: " + spec);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,220 @@
+package org.acme.simulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves a {@link SimulatedPaymentProcessor} with the HTTP API of the official payment processor image, plus two
+ * admin endpoints of its own: {@code PUT /admin/configurations/failure-rate} and
+ * {@code PUT /admin/configurations/latency}. Every request runs on its own virtual thread, so a delayed payment
+ * only parks that thread.
+ */
+public final class PaymentProcessorServer implements AutoCloseable {
+
+    private static final String TOKEN_HEADER = "X-Rinha-Token";
+    private static final String PAYMENTS = "/payments";
+    private static final String SERVICE_HEALTH = "/payments/service-health";
+    private static final String ADMIN = "/admin/";
+
+    private record Response(int status, String body) {
+
+        static Response message(int status, String message) {
+            return new Response(status, "{\"message\":" + Json.quote(message) + "}");
+        }
+    }
+
+    private final SimulatedPaymentProcessor processor;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private PaymentProcessorServer(SimulatedPaymentProcessor processor, HttpServer server, ExecutorService executor) {
+        this.processor = processor;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static PaymentProcessorServer start(SimulatedPaymentProcessor processor, InetSocketAddress address) throws IOException {
+        HttpServer server = HttpServer.create(address, 0);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        PaymentProcessorServer paymentProcessorServer = new PaymentProcessorServer(processor, server, executor);
+        server.setExecutor(executor);
+        server.createContext("/", paymentProcessorServer::handle);
+        server.start();
+        return paymentProcessorServer;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public SimulatedPaymentProcessor processor() {
+        return processor;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Response response;
+            try {
+                String path = exchange.getRequestURI().getPath();
+                response = path.startsWith(ADMIN) ? admin(exchange, path) : payments(exchange, path);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                response = Response.message(400, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                response = Response.message(503, "Shutting down");
+            }
+            send(exchange, response);
+        }
+    }
+
+    private Response payments(HttpExchange exchange, String path) throws IOException, InterruptedException {
+        String method = exchange.getRequestMethod();
+        if (PAYMENTS.equals(path)) {
+            return "POST".equals(method) ? processPayment(exchange) : Response.message(405, "Method not allowed");
+        }
+        if (!"GET".equals(method)) {
+            return Response.message(405, "Method not allowed");
+        }
+        if (SERVICE_HEALTH.equals(path)) {
+            return processor.health()
+                    .map(health -> new Response(200, "{\"failing\":" + health.failing()
+                            + ",\"minResponseTime\":" + health.minResponseTime() + "}"))
+                    .orElseGet(() -> Response.message(429, "Too many requests"));
+        }
+        if (path.startsWith(PAYMENTS + "/")) {
+            return processor.payment(path.substring(PAYMENTS.length() + 1))
+                    .map(payment -> new Response(200, "{\"correlationId\":" + Json.quote(payment.correlationId())
+                            + ",\"amount\":" + payment.amount().toPlainString()
+                            + ",\"requestedAt\":" + Json.quote(payment.requestedAt().toString()) + "}"))
+                    .orElseGet(() -> Response.message(404, "Payment not found"));
+        }
+        return Response.message(404, "Not found");
+    }
+
+    private Response processPayment(HttpExchange exchange) throws IOException, InterruptedException {
+        Map<String, String> body = Json.parseObject(readBody(exchange));
+        SimulatedPaymentProcessor.Payment payment;
+        try {
+            payment = new SimulatedPaymentProcessor.Payment(
+                    UUID.fromString(required(body, "correlationId")).toString(),
+                    new BigDecimal(required(body, "amount")),
+                    Instant.parse(required(body, "requestedAt")));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Response.message(422, e.getMessage());
+        }
+        return switch (processor.process(payment)) {
+            case PROCESSED -> Response.message(200, "payment processed successfully");
+            case FAILED -> Response.message(500, "Internal server error");
+            case DUPLICATE -> Response.message(422, "CorrelationId already exists");
+        };
+    }
+
+    private Response admin(HttpExchange exchange, String path) throws IOException {
+        if (!processor.authorized(exchange.getRequestHeaders().getFirst(TOKEN_HEADER))) {
+            return Response.message(401, "Invalid token");
+        }
+        String method = exchange.getRequestMethod();
+        return switch (method + " " + path) {
+            case "GET /admin/payments-summary" -> summary(exchange);
+            case "POST /admin/purge-payments" -> {
+                processor.purge();
+                yield Response.message(200, "All payments purged.");
+            }
+            case "PUT /admin/configurations/token" -> {
+                processor.token(required(Json.parseObject(readBody(exchange)), "token"));
+                yield new Response(204, null);
+            }
+            case "PUT /admin/configurations/delay" -> {
+                long delay = Long.parseLong(required(Json.parseObject(readBody(exchange)), "delay"));
+                processor.delay(delay);
+                yield Response.message(200, "Delay set to " + delay + "ms.");
+            }
+            case "PUT /admin/configurations/failure" -> {
+                boolean failure = Boolean.parseBoolean(required(Json.parseObject(readBody(exchange)), "failure"));
+                processor.failure(failure);
+                yield Response.message(200, "Failure set to " + failure + ".");
+            }
+            case "PUT /admin/configurations/failure-rate" -> {
+                double failureRate = Double.parseDouble(required(Json.parseObject(readBody(exchange)), "failureRate"));
+                processor.failureRate(failureRate);
+                yield Response.message(200, "Failure rate set to " + failureRate + ".");
+            }
+            case "PUT /admin/configurations/latency" -> {
+                LatencyDistribution latency = LatencyDistribution.parse(required(Json.parseObject(readBody(exchange)), "latency"));
+                processor.latency(latency);
+                yield Response.message(200, "Latency set to " + latency + ".");
+            }
+            default -> Response.message(404, "Not found");
+        };
+    }
+
+    private Response summary(HttpExchange exchange) {
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        SimulatedPaymentProcessor.Summary summary = processor.summary(instant(query.get("from")), instant(query.get("to")));
+        return new Response(200, "{\"totalRequests\":" + summary.totalRequests()
+                + ",\"totalAmount\":" + summary.totalAmount().toPlainString()
+                + ",\"totalFee\":" + summary.totalFee().toPlainString()
+                + ",\"feePerTransaction\":" + summary.feePerTransaction().toPlainString() + "}");
+    }
+
+    private static Instant instant(String value) {
+        return value == null || value.isEmpty() ? null : Instant.parse(value);
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static String required(Map<String, String> body, String field) {
+        String value = body.get(field);
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        if (response.body() == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status(), body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
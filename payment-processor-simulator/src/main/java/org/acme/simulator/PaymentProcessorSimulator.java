@@ -0,0 +1,111 @@
+package org.acme.simulator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Starts a default and a fallback payment processor, a stand-in for {@code payment-processor/docker-compose.yml}
+ * that needs neither Docker nor Postgres:
+ * <pre>
+ * java -jar target/payment-processor-simulator-1.0.0-SNAPSHOT.jar --scenario=rinha
+ * </pre>
+ * Options, all {@code --name=value}: {@code host} (0.0.0.0), {@code default-port} (8001), {@code fallback-port}
+ * (8002), {@code default-fee} (0.05), {@code fallback-fee} (0.15), {@code token} (123), {@code health-interval} (5s),
+ * {@code default-latency} and {@code fallback-latency} (constant:0) and {@code scenario}, a {@link Scenario} file or
+ * bundled scenario name started with the processors.
+ */
+public final class PaymentProcessorSimulator implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(PaymentProcessorSimulator.class.getName());
+
+    private final List<PaymentProcessorServer> servers;
+    private final ScheduledExecutorService scheduler;
+
+    private PaymentProcessorSimulator(List<PaymentProcessorServer> servers, ScheduledExecutorService scheduler) {
+        this.servers = servers;
+        this.scheduler = scheduler;
+    }
+
+    public static PaymentProcessorSimulator start(Map<String, String> options) throws IOException {
+        String host = options.getOrDefault("host", "0.0.0.0");
+        String token = options.getOrDefault("token", "123");
+        Duration healthInterval = Durations.parse(options.getOrDefault("health-interval", "5s"));
+        SimulatedPaymentProcessor defaultProcessor = new SimulatedPaymentProcessor("default",
+                new BigDecimal(options.getOrDefault("default-fee", "0.05")), token, healthInterval);
+        SimulatedPaymentProcessor fallbackProcessor = new SimulatedPaymentProcessor("fallback",
+                new BigDecimal(options.getOrDefault("fallback-fee", "0.15")), token, healthInterval);
+        defaultProcessor.latency(LatencyDistribution.parse(options.getOrDefault("default-latency", "constant:0")));
+        fallbackProcessor.latency(LatencyDistribution.parse(options.getOrDefault("fallback-latency", "constant:0")));
+        Scenario scenario = options.containsKey("scenario") ? Scenario.load(options.get("scenario")) : null;
+
+        PaymentProcessorServer defaultServer = PaymentProcessorServer.start(defaultProcessor,
+                new InetSocketAddress(host, Integer.parseInt(options.getOrDefault("default-port", "8001"))));
+        PaymentProcessorServer fallbackServer;
+        try {
+            fallbackServer = PaymentProcessorServer.start(fallbackProcessor,
+                    new InetSocketAddress(host, Integer.parseInt(options.getOrDefault("fallback-port", "8002"))));
+        } catch (IOException | RuntimeException e) {
+            defaultServer.close();
+            throw e;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("payment-processor-scenario").daemon().factory());
+        PaymentProcessorSimulator simulator = new PaymentProcessorSimulator(List.of(defaultServer, fallbackServer), scheduler);
+        if (scenario != null) {
+            try {
+                scenario.start(List.of(defaultProcessor, fallbackProcessor), scheduler);
+            } catch (RuntimeException e) {
+                simulator.close();
+                throw e;
+            }
+        }
+        return simulator;
+    }
+
+    public PaymentProcessorServer defaultServer() {
+        return servers.get(0);
+    }
+
+    public PaymentProcessorServer fallbackServer() {
+        return servers.get(1);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        servers.forEach(PaymentProcessorServer::close);
+    }
+
+    static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --<name>=<value>, got " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        PaymentProcessorSimulator simulator = start(options(args));
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            simulator.close();
+            stopped.countDown();
+        }));
+        for (PaymentProcessorServer server : simulator.servers) {
+            LOGGER.log(System.Logger.Level.INFO, "Simulating {0} on port {1,number,#}", server.processor(), server.port());
+        }
+        stopped.await();
+    }
+}
@@ -0,0 +1,136 @@
+package org.acme.simulator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A timeline of behaviour changes, one step per line:
+ * <pre>
+ * # at  processor  settings
+ * 10s   default    delay=100 latency=uniform:0-20
+ * 20s   default    failure=true
+ * 25s   fallback   failure-rate=0.2
+ * 30s   *          delay=0 failure=false latency=constant:0
+ * </pre>
+ * {@code at} is the offset from the start of the scenario, {@code *} targets every processor, {@code delay} is in
+ * milliseconds and {@code latency} is a {@link LatencyDistribution}. A failure window is a {@code failure=true}
+ * step followed by a {@code failure=false} one.
+ */
+public record Scenario(List<Step> steps) {
+
+    private static final String CLASSPATH_PREFIX = "/scenarios/";
+    private static final String ALL_PROCESSORS = "*";
+
+    public record Step(Duration at, String processor, Long delayMillis, Double failureRate, LatencyDistribution latency) {
+
+        boolean targets(SimulatedPaymentProcessor simulatedPaymentProcessor) {
+            return ALL_PROCESSORS.equals(processor) || processor.equals(simulatedPaymentProcessor.name());
+        }
+
+        void applyTo(SimulatedPaymentProcessor simulatedPaymentProcessor) {
+            if (delayMillis != null) {
+                simulatedPaymentProcessor.delay(delayMillis);
+            }
+            if (failureRate != null) {
+                simulatedPaymentProcessor.failureRate(failureRate);
+            }
+            if (latency != null) {
+                simulatedPaymentProcessor.latency(latency);
+            }
+        }
+    }
+
+    public Scenario {
+        steps = steps.stream().sorted(Comparator.comparing(Step::at)).toList();
+    }
+
+    /**
+     * Reads a scenario file, or one of the scenarios bundled under {@code src/main/resources/scenarios} by its name,
+     * such as {@code rinha} for the stages of {@code rinha-test/rinha.js}.
+     */
+    public static Scenario load(String location) throws IOException {
+        try (InputStream bundled = Scenario.class.getResourceAsStream(CLASSPATH_PREFIX + location + ".scenario")) {
+            if (bundled != null) {
+                return parse(new String(bundled.readAllBytes(), StandardCharsets.UTF_8).lines().toList());
+            }
+        }
+        return parse(Files.readAllLines(Path.of(location)));
+    }
+
+    public static Scenario parse(List<String> lines) {
+        List<Step> steps = new ArrayList<>();
+        for (int number = 1; number <= lines.size(); number++) {
+            String line = lines.get(number - 1);
+            int comment = line.indexOf('#');
+            String content = (comment < 0 ? line : line.substring(0, comment)).trim();
+            if (content.isEmpty()) {
+                continue;
+            }
+            try {
+                steps.add(parseStep(content.split("\\s+")));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid scenario line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return new Scenario(steps);
+    }
+
+    private static Step parseStep(String[] tokens) {
+        if (tokens.length < 3) {
+            throw new IllegalArgumentException("expected '<at> <processor> <setting>=<value>...'");
+        }
+        Long delayMillis = null;
+        Double failureRate = null;
+        LatencyDistribution latency = null;
+        for (int i = 2; i < tokens.length; i++) {
+            int equals = tokens[i].indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("expected <setting>=<value>, got " + tokens[i]);
+            }
+            String value = tokens[i].substring(equals + 1);
+            switch (tokens[i].substring(0, equals)) {
+                case "delay" -> delayMillis = Long.parseLong(value);
+                case "failure" -> failureRate = Boolean.parseBoolean(value) ? 1.0 : 0.0;
+                case "failure-rate" -> failureRate = Double.parseDouble(value);
+                case "latency" -> latency = LatencyDistribution.parse(value);
+                default -> throw new IllegalArgumentException("unknown setting " + tokens[i]);
+            }
+        }
+        if (failureRate != null && (failureRate < 0 || failureRate > 1)) {
+            throw new IllegalArgumentException("the failure rate must be within [0, 1]");
+        }
+        return new Step(Durations.parse(tokens[0]), tokens[1], delayMillis, failureRate, latency);
+    }
+
+    /**
+     * Schedules every step on {@code scheduler}, relative to now.
+     */
+    public void start(Collection<SimulatedPaymentProcessor> processors, ScheduledExecutorService scheduler) {
+        Map<String, SimulatedPaymentProcessor> byName = processors.stream()
+                .collect(Collectors.toMap(SimulatedPaymentProcessor::name, Function.identity()));
+        for (Step step : steps) {
+            if (!ALL_PROCESSORS.equals(step.processor()) && !byName.containsKey(step.processor())) {
+                throw new IllegalArgumentException("The scenario targets an unknown processor: " + step.processor());
+            }
+        }
+        for (Step step : steps) {
+            scheduler.schedule(() -> processors.stream()
+                            .filter(step::targets)
+                            .forEach(step::applyTo),
+                    step.at().toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.acme.simulator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The state of one payment processor, behaving like the official image: payments are registered once per
+ * correlation id, the response time is the admin {@code delay} plus a sample of the {@link LatencyDistribution}, a
+ * share of the payments fails with the {@code failure rate} ({@code failure: true} is a rate of 1), and the health
+ * check answers at most once per interval.
+ */
+public final class SimulatedPaymentProcessor {
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    public record Payment(String correlationId, BigDecimal amount, Instant requestedAt) {
+    }
+
+    public record Summary(long totalRequests, BigDecimal totalAmount, BigDecimal totalFee, BigDecimal feePerTransaction) {
+    }
+
+    public record Health(boolean failing, long minResponseTime) {
+    }
+
+    public enum Outcome {
+        PROCESSED, FAILED, DUPLICATE
+    }
+
+    private record Behaviour(long delayMillis, double failureRate, LatencyDistribution latency) {
+
+        long responseTimeMillis() {
+            return delayMillis + latency.sampleMillis(ThreadLocalRandom.current());
+        }
+
+        boolean fails() {
+            return failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+        }
+    }
+
+    private final String name;
+    private final BigDecimal fee;
+    private final long healthIntervalNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, Payment> payments = new ConcurrentHashMap<>();
+    private final AtomicLong lastHealthCheck = new AtomicLong(NEVER);
+    private volatile Behaviour behaviour = new Behaviour(0, 0, LatencyDistribution.NONE);
+    private volatile String token;
+
+    public SimulatedPaymentProcessor(String name, BigDecimal fee, String token, Duration healthInterval) {
+        this(name, fee, token, healthInterval, System::nanoTime);
+    }
+
+    SimulatedPaymentProcessor(String name, BigDecimal fee, String token, Duration healthInterval, LongSupplier nanoClock) {
+        this.name = name;
+        this.fee = fee;
+        this.token = token;
+        this.healthIntervalNanos = healthInterval.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Waits for the simulated response time, then fails or registers the payment.
+     */
+    public Outcome process(Payment payment) throws InterruptedException {
+        Behaviour current = behaviour;
+        long responseTime = current.responseTimeMillis();
+        if (responseTime > 0) {
+            Thread.sleep(responseTime);
+        }
+        if (current.fails()) {
+            return Outcome.FAILED;
+        }
+        return payments.putIfAbsent(payment.correlationId(), payment) == null ? Outcome.PROCESSED : Outcome.DUPLICATE;
+    }
+
+    public Optional<Payment> payment(String correlationId) {
+        return Optional.ofNullable(payments.get(correlationId));
+    }
+
+    /**
+     * The health of the processor, or empty when it was already checked during the last health interval.
+     */
+    public Optional<Health> health() {
+        long now = nanoClock.getAsLong();
+        long last = lastHealthCheck.get();
+        if (last != NEVER && now - last < healthIntervalNanos || !lastHealthCheck.compareAndSet(last, now)) {
+            return Optional.empty();
+        }
+        Behaviour current = behaviour;
+        return Optional.of(new Health(current.failureRate() > 0, current.delayMillis()));
+    }
+
+    /**
+     * Sums the payments requested within {@code [from, to]}; a missing bound leaves that side open.
+     */
+    public Summary summary(Instant from, Instant to) {
+        long count = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        for (Payment payment : payments.values()) {
+            if ((from == null || !payment.requestedAt().isBefore(from)) && (to == null || !payment.requestedAt().isAfter(to))) {
+                count++;
+                amount = amount.add(payment.amount());
+            }
+        }
+        return new Summary(count, amount, amount.multiply(fee).setScale(2, RoundingMode.HALF_EVEN), fee);
+    }
+
+    public void purge() {
+        payments.clear();
+    }
+
+    public boolean authorized(String token) {
+        return this.token.equals(token);
+    }
+
+    public void token(String token) {
+        this.token = token;
+    }
+
+    public synchronized void delay(long delayMillis) {
+        Behaviour current = behaviour;
+        behaviour = new Behaviour(delayMillis, current.failureRate(), current.latency());
+    }
+
+    public void failure(boolean failure) {
+        failureRate(failure ? 1 : 0);
+    }
+
+    public synchronized void failureRate(double failureRate) {
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("The failure rate must be within [0, 1]: " + failureRate);
+        }
+        Behaviour current = behaviour;
+        behaviour = new Behaviour(current.delayMillis(), failureRate, current.latency());
+    }
+
+    public synchronized void latency(LatencyDistribution latency) {
+        Behaviour current = behaviour;
+        behaviour = new Behaviour(current.delayMillis(), current.failureRate(), latency);
+    }
+
+    @Override
+    public String toString() {
+        Behaviour current = behaviour;
+        return name + "[delay=" + current.delayMillis() + "ms, failure-rate=" + current.failureRate()
+                + ", latency=" + current.latency() + "]";
+    }
+}
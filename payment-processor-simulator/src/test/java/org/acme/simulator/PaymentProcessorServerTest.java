@@ -0,0 +1,92 @@
+package org.acme.simulator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentProcessorServerTest {
+
+    private static final String PAYMENT = """
+            {"correlationId": "4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3", "amount": 19.90, "requestedAt": "2025-07-15T12:34:56.000Z"}""";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private PaymentProcessorServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = PaymentProcessorServer.start(
+                new SimulatedPaymentProcessor("default", new BigDecimal("0.05"), "123", Duration.ofSeconds(5)),
+                new InetSocketAddress("localhost", 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            request.header("X-Rinha-Token", token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testProcessesPaymentsAndSummarizesThem() throws IOException, InterruptedException {
+        HttpResponse<String> processed = send("POST", "/payments", PAYMENT, null);
+        assertEquals(200, processed.statusCode());
+        assertEquals("{\"message\":\"payment processed successfully\"}", processed.body());
+        assertEquals(422, send("POST", "/payments", PAYMENT, null).statusCode());
+        assertEquals(422, send("POST", "/payments", "{\"correlationId\": \"x\", \"amount\": 1}", null).statusCode());
+        assertEquals(400, send("POST", "/payments", "{\"correlationId\":", null).statusCode());
+
+        assertEquals(200, send("GET", "/payments/4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3", null, null).statusCode());
+        HttpResponse<String> summary = send("GET",
+                "/admin/payments-summary?from=2025-07-15T12:34:56.000Z&to=2025-07-15T12:35:56.000Z", null, "123");
+        assertEquals(200, summary.statusCode());
+        assertEquals("{\"totalRequests\":1,\"totalAmount\":19.90,\"totalFee\":1.00,\"feePerTransaction\":0.05}", summary.body());
+
+        assertEquals(200, send("POST", "/admin/purge-payments", null, "123").statusCode());
+        assertTrue(send("GET", "/admin/payments-summary", null, "123").body().startsWith("{\"totalRequests\":0,"));
+    }
+
+    @Test
+    void testHealthCheckIsRateLimited() throws IOException, InterruptedException {
+        HttpResponse<String> health = send("GET", "/payments/service-health", null, null);
+        assertEquals(200, health.statusCode());
+        assertEquals("{\"failing\":false,\"minResponseTime\":0}", health.body());
+        assertEquals(429, send("GET", "/payments/service-health", null, null).statusCode());
+    }
+
+    @Test
+    void testAdminEndpointsNeedTheToken() throws IOException, InterruptedException {
+        assertEquals(401, send("PUT", "/admin/configurations/failure", "{\"failure\": true}", null).statusCode());
+        assertEquals(204, send("PUT", "/admin/configurations/token", "{\"token\": \"secret\"}", "123").statusCode());
+        assertEquals(401, send("PUT", "/admin/configurations/failure", "{\"failure\": true}", "123").statusCode());
+
+        assertEquals(200, send("PUT", "/admin/configurations/failure", "{\"failure\": true}", "secret").statusCode());
+        assertEquals(500, send("POST", "/payments", PAYMENT, null).statusCode());
+
+        assertEquals(200, send("PUT", "/admin/configurations/failure", "{\"failure\": false}", "secret").statusCode());
+        assertEquals(200, send("PUT", "/admin/configurations/delay", "{\"delay\": 50}", "secret").statusCode());
+        assertEquals(200, send("PUT", "/admin/configurations/latency", "{\"latency\": \"constant:10\"}", "secret").statusCode());
+        assertEquals(400, send("PUT", "/admin/configurations/latency", "{\"latency\": \"zipf:1\"}", "secret").statusCode());
+        long start = System.nanoTime();
+        assertEquals(200, send("POST", "/payments", PAYMENT, null).statusCode());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(60).toNanos());
+    }
+}
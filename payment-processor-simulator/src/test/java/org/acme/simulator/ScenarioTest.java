@@ -0,0 +1,84 @@
+package org.acme.simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioTest {
+
+    @Test
+    void testParsesStepsInTimeOrder() {
+        Scenario scenario = Scenario.parse(List.of(
+                "# failure window on the default processor",
+                "20s default failure=true",
+                "",
+                "500ms *  delay=10 latency=uniform:1-5   # both",
+                "25s default failure-rate=0.25"));
+
+        assertEquals(List.of(
+                new Scenario.Step(Duration.ofMillis(500), "*", 10L, null, new LatencyDistribution.Uniform(1, 5)),
+                new Scenario.Step(Duration.ofSeconds(20), "default", null, 1.0, null),
+                new Scenario.Step(Duration.ofSeconds(25), "default", null, 0.25, null)), scenario.steps());
+    }
+
+    @Test
+    void testRejectsInvalidLines() {
+        assertThrows(IllegalArgumentException.class, () -> Scenario.parse(List.of("10s default")));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.parse(List.of("10s default speed=fast")));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.parse(List.of("10s default failure-rate=2")));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.parse(List.of("soon default delay=1")));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.parse(List.of("1s default latency=pareto:1")));
+    }
+
+    @Test
+    void testBundledRinhaScenarioMatchesTheK6Stages() throws IOException {
+        Scenario scenario = Scenario.load("rinha");
+
+        assertEquals(12, scenario.steps().size());
+        assertEquals(new Scenario.Step(Duration.ofSeconds(30), "fallback", 1000L, 1.0, null), scenario.steps().get(7));
+    }
+
+    @Test
+    void testAppliesStepsToTheTargetedProcessors() throws InterruptedException {
+        SimulatedPaymentProcessor defaultProcessor = new SimulatedPaymentProcessor("default", new BigDecimal("0.05"), "123", Duration.ZERO);
+        SimulatedPaymentProcessor fallbackProcessor = new SimulatedPaymentProcessor("fallback", new BigDecimal("0.15"), "123", Duration.ZERO);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Scenario.parse(List.of("0s * delay=7", "0s fallback failure=true"))
+                    .start(List.of(defaultProcessor, fallbackProcessor), scheduler);
+            scheduler.shutdown();
+            assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+
+            assertEquals(new SimulatedPaymentProcessor.Health(false, 7), defaultProcessor.health().orElseThrow());
+            assertEquals(new SimulatedPaymentProcessor.Health(true, 7), fallbackProcessor.health().orElseThrow());
+            assertThrows(IllegalArgumentException.class, () -> Scenario.parse(List.of("0s other delay=1"))
+                    .start(List.of(defaultProcessor), scheduler));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLatencyDistributionsStayWithinTheirBounds() {
+        SplittableRandom random = new SplittableRandom(7);
+        LatencyDistribution uniform = LatencyDistribution.parse("uniform:5-20");
+        LatencyDistribution normal = LatencyDistribution.parse("normal:1,10");
+        LatencyDistribution lognormal = LatencyDistribution.parse("lognormal:10,0.5");
+        for (int i = 0; i < 10_000; i++) {
+            long sample = uniform.sampleMillis(random);
+            assertTrue(sample >= 5 && sample <= 20, "uniform " + sample);
+            assertTrue(normal.sampleMillis(random) >= 0);
+            assertTrue(lognormal.sampleMillis(random) >= 0);
+        }
+        assertEquals(5, LatencyDistribution.parse("constant:5").sampleMillis(random));
+    }
+}
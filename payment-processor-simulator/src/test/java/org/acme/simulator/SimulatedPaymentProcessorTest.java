@@ -0,0 +1,93 @@
+package org.acme.simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedPaymentProcessorTest {
+
+    private static final Instant NOW = Instant.parse("2025-07-15T12:34:56.000Z");
+
+    private static SimulatedPaymentProcessor.Payment payment(String correlationId, String amount, Instant requestedAt) {
+        return new SimulatedPaymentProcessor.Payment(correlationId, new BigDecimal(amount), requestedAt);
+    }
+
+    @Test
+    void testRegistersEachCorrelationIdOnceAndSummarizesTheWindow() throws InterruptedException {
+        SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor("default", new BigDecimal("0.05"), "123", Duration.ofSeconds(5));
+
+        assertEquals(SimulatedPaymentProcessor.Outcome.PROCESSED, processor.process(payment("a", "19.90", NOW)));
+        assertEquals(SimulatedPaymentProcessor.Outcome.PROCESSED, processor.process(payment("b", "10.10", NOW.plusSeconds(1))));
+        assertEquals(SimulatedPaymentProcessor.Outcome.PROCESSED, processor.process(payment("c", "5.00", NOW.plusSeconds(10))));
+        assertEquals(SimulatedPaymentProcessor.Outcome.DUPLICATE, processor.process(payment("a", "19.90", NOW)));
+
+        assertEquals(new SimulatedPaymentProcessor.Summary(3, new BigDecimal("35.00"), new BigDecimal("1.75"), new BigDecimal("0.05")),
+                processor.summary(null, null));
+        assertEquals(new SimulatedPaymentProcessor.Summary(2, new BigDecimal("30.00"), new BigDecimal("1.50"), new BigDecimal("0.05")),
+                processor.summary(NOW, NOW.plusSeconds(1)));
+
+        processor.purge();
+        assertEquals(0, processor.summary(null, null).totalRequests());
+    }
+
+    @Test
+    void testFailingProcessorRegistersNothing() throws InterruptedException {
+        SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor("fallback", new BigDecimal("0.15"), "123", Duration.ofSeconds(5));
+        processor.failure(true);
+
+        assertEquals(SimulatedPaymentProcessor.Outcome.FAILED, processor.process(payment("a", "19.90", NOW)));
+        assertTrue(processor.payment("a").isEmpty());
+
+        processor.failure(false);
+        assertEquals(SimulatedPaymentProcessor.Outcome.PROCESSED, processor.process(payment("a", "19.90", NOW)));
+        assertTrue(processor.payment("a").isPresent());
+    }
+
+    @Test
+    void testPartialFailureRateFailsAShareOfThePayments() throws InterruptedException {
+        SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor("default", new BigDecimal("0.05"), "123", Duration.ofSeconds(5));
+        processor.failureRate(0.5);
+
+        int failed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (processor.process(payment(String.valueOf(i), "1", NOW)) == SimulatedPaymentProcessor.Outcome.FAILED) {
+                failed++;
+            }
+        }
+        assertTrue(failed > 4_500 && failed < 5_500, "failed " + failed);
+        assertThrows(IllegalArgumentException.class, () -> processor.failureRate(1.5));
+    }
+
+    @Test
+    void testHealthAnswersOncePerInterval() {
+        AtomicLong clock = new AtomicLong(42);
+        SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor("default", new BigDecimal("0.05"), "123",
+                Duration.ofSeconds(5), clock::get);
+        processor.delay(100);
+
+        assertEquals(new SimulatedPaymentProcessor.Health(false, 100), processor.health().orElseThrow());
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertTrue(processor.health().isEmpty());
+
+        processor.failure(true);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(new SimulatedPaymentProcessor.Health(true, 100), processor.health().orElseThrow());
+        assertTrue(processor.health().isEmpty());
+    }
+
+    @Test
+    void testResponseTimeIsTheDelayPlusTheLatencySample() throws InterruptedException {
+        SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor("default", new BigDecimal("0.05"), "123", Duration.ofSeconds(5));
+        processor.delay(20);
+        processor.latency(LatencyDistribution.parse("constant:30"));
+
+        long start = System.nanoTime();
+        processor.process(payment("a", "19.90", NOW));
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+    }
+}